@@ -0,0 +1,34 @@
+package benchmark;
+
+import chess.ChessGame;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkmate detection on positions in check, where it has to look for a legal reply
+ * instead of returning as soon as it finds the king is safe.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckmateBenchmark {
+
+    @Param({"check", "mate"})
+    public String position;
+
+    private ChessGame game;
+
+    @Setup
+    public void setup() {
+        game = Positions.load(position);
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+}
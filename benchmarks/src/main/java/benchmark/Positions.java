@@ -0,0 +1,29 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.Fen;
+
+import java.util.Map;
+
+/**
+ * Benchmark corpus: one representative position per game phase, plus a check that can be
+ * answered and a checkmate, where checkmate detection has to search for a legal move.
+ */
+public final class Positions {
+
+    private static final Map<String, String> FENS = Map.of(
+            "opening", Fen.START_POSITION,
+            "middlegame", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "endgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "check", "rnbqkbnr/ppppp1pp/8/5p1Q/4P3/8/PPPP1PPP/RNB1KBNR b - - 1 2",
+            "mate", "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w - - 1 3");
+
+    private Positions() {
+    }
+
+    public static ChessGame load(String name) {
+        String fen = FENS.get(name);
+        if (fen == null) {throw new IllegalArgumentException("Unknown position: " + name);}
+        return Fen.parse(fen);
+    }
+}
@@ -27,7 +27,7 @@ public class ChessboardUI {
             for (String file : displayFiles) {
                 int row = Integer.parseInt(rank);
                 int col = file.charAt(0) - 'a' + 1;
-                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+                ChessPiece piece = board.getPiece(ChessPosition.of(row, col));
 
                 String square = getSquareColor(row, col);
                 String pieceString = getPieceString(piece);
@@ -1,6 +1,7 @@
 package client;
 
 import chess.ChessMove;
+import chess.InvalidMoveException;
 import chess.ChessPosition;
 import model.GameData;
 import websocket.commands.UserGameCommand;
@@ -16,6 +17,8 @@ public class GameplayUI implements WebSocketConnection.WebSocketMessageListener
     private WebSocketConnection wsConnection;
     private GameData currentGame;
     private boolean gameActive = true;
+    // Deltas are dropped from a resync request until the LOAD_GAME answering it arrives
+    private boolean resyncPending;
 
     public GameplayUI(ServerFacade serverFacade, int gameID, String playerColor) {
         this.serverFacade = serverFacade;
@@ -29,13 +32,8 @@ public class GameplayUI implements WebSocketConnection.WebSocketMessageListener
             // Connect via WebSocket
             wsConnection = new WebSocketConnection(serverFacade.getUrl(), this);
 
-            // Send CONNECT command
-            UserGameCommand connectCmd = new UserGameCommand(
-                    UserGameCommand.CommandType.CONNECT,
-                    serverFacade.getAuthToken(),
-                    gameID,
-                    null
-            );
+            // Send CONNECT command; later moves arrive as deltas applied to our copy of the game
+            UserGameCommand connectCmd = UserGameCommand.connectWithMoveDeltas(serverFacade.getAuthToken(), gameID);
             wsConnection.send(connectCmd);
 
             // Game loop
@@ -71,6 +69,7 @@ public class GameplayUI implements WebSocketConnection.WebSocketMessageListener
         switch (message.getServerMessageType()) {
             case LOAD_GAME:
                 currentGame = message.getGame();
+                resyncPending = false;
                 displayBoard();
                 break;
             case ERROR:
@@ -79,6 +78,44 @@ public class GameplayUI implements WebSocketConnection.WebSocketMessageListener
             case NOTIFICATION:
                 System.out.println("I" + message.getMessage());
                 break;
+            case MOVE_MADE:
+                applyMove(message);
+                break;
+        }
+    }
+
+    private void applyMove(ServerMessage message) {
+        if (resyncPending) {return;}
+        if (currentGame == null) {
+            requestResync();
+            return;
+        }
+        try {
+            currentGame.game().makeMove(message.getMove());
+        } catch (InvalidMoveException e) {
+            requestResync();
+            return;
+        }
+        if (message.getPositionKey() == null || currentGame.game().positionKey() != message.getPositionKey()) {
+            requestResync();
+            return;
+        }
+        displayBoard();
+    }
+
+    // Our copy has drifted from the server's; ask for the whole game again.
+    private void requestResync() {
+        resyncPending = true;
+        try {
+            wsConnection.send(new UserGameCommand(
+                    UserGameCommand.CommandType.RESYNC,
+                    serverFacade.getAuthToken(),
+                    gameID,
+                    null
+            ));
+        } catch (Exception e) {
+            resyncPending = false;
+            System.out.println("Error: " + e.getMessage());
         }
     }
 
@@ -211,6 +248,6 @@ public class GameplayUI implements WebSocketConnection.WebSocketMessageListener
         }
 
         int col = file - 'a' + 1;
-        return new ChessPosition(rank, col);
+        return ChessPosition.of(rank, col);
     }
 }
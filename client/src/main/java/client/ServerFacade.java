@@ -2,12 +2,14 @@ package client;
 
 import com.google.gson.Gson;
 import model.*;
-import model.*;
+import serialization.Serializer;
 import java.net.URI;
 import java.net.URL;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ServerFacade {
     private final String serverUrl;
@@ -19,7 +21,7 @@ public class ServerFacade {
     public ServerFacade(int port) {
         this.serverUrl = "http://localhost:" + port;
         this.httpClient = HttpClient.newHttpClient();
-        this.gson = new Gson();
+        this.gson = Serializer.gson();
         this.authToken = null;
     }
 
@@ -46,9 +48,20 @@ public class ServerFacade {
         this.authToken = null;
     }
 
+    /**
+     * Every game on the server, in game ID order. The server returns the list a page at
+     * a time, so this follows {@code nextCursor} until the last page.
+     */
     public ListGamesResult listGames() throws Exception {
-        var response = makeRequest("GET", "/game", null, authToken);
-        return gson.fromJson(response, ListGamesResult.class);
+        List<GameData> games = new ArrayList<>();
+        Integer cursor = 0;
+        while (cursor != null) {
+            var response = makeRequest("GET", "/game?cursor=" + cursor, null, authToken);
+            ListGamesResult page = gson.fromJson(response, ListGamesResult.class);
+            if (page.games() != null) {games.addAll(page.games());}
+            cursor = page.nextCursor();
+        }
+        return new ListGamesResult(games, null);
     }
 
     public CreateGameResult createGame(String gameName) throws Exception {
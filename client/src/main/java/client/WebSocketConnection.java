@@ -3,10 +3,14 @@ package client;
 import com.google.gson.Gson;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.annotations.*;
+import org.eclipse.jetty.websocket.client.ClientUpgradeRequest;
 import org.eclipse.jetty.websocket.client.WebSocketClient;
+import serialization.BinaryMessageCodec;
+import serialization.Serializer;
 import websocket.commands.UserGameCommand;
 import websocket.messages.ServerMessage;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -14,22 +18,33 @@ import java.util.concurrent.TimeUnit;
 @WebSocket
 public class WebSocketConnection {
     private Session session;
-    private final Gson gson = new Gson();
+    private final Gson gson = Serializer.gson();
     private final WebSocketMessageListener listener;
     private final CountDownLatch connectLatch;
     private final WebSocketClient client;
+    private boolean binary;
 
     public interface WebSocketMessageListener {
         void onServerMessage(ServerMessage message);
     }
 
     public WebSocketConnection(String serverUrl, WebSocketMessageListener listener) throws Exception {
+        this(serverUrl, listener, false);
+    }
+
+    /**
+     * @param preferBinary offer the binary subprotocol; JSON is still used if the server
+     *                     does not accept it
+     */
+    public WebSocketConnection(String serverUrl, WebSocketMessageListener listener, boolean preferBinary) throws Exception {
         this.listener = listener;
         this.connectLatch = new CountDownLatch(1);
         client = new WebSocketClient();
         client.start();
         URI uri = new URI(serverUrl.replace("http", "ws") + "/ws");
-        client.connect(this, uri);
+        ClientUpgradeRequest request = new ClientUpgradeRequest();
+        if (preferBinary) {request.setSubProtocols(BinaryMessageCodec.SUBPROTOCOL);}
+        client.connect(this, uri, request);
         if (!connectLatch.await(5, TimeUnit.SECONDS)) {
             client.stop();
             throw new Exception("WebSocket connection timeout");
@@ -39,6 +54,7 @@ public class WebSocketConnection {
     @OnWebSocketConnect
     public void onConnect(Session session) {
         this.session = session;
+        this.binary = BinaryMessageCodec.SUBPROTOCOL.equals(session.getUpgradeResponse().getAcceptedSubProtocol());
         connectLatch.countDown();
     }
 
@@ -52,6 +68,15 @@ public class WebSocketConnection {
         }
     }
 
+    @OnWebSocketMessage
+    public void onMessage(byte[] payload, int offset, int length) {
+        try {
+            listener.onServerMessage(BinaryMessageCodec.decodeMessage(payload, offset, length));
+        } catch (Exception e) {
+            System.err.println("Error decoding message: " + e.getMessage());
+        }
+    }
+
     @OnWebSocketClose
     public void onClose(int statusCode, String reason) {
         System.out.println("WebSocket closed: " + reason);
@@ -64,7 +89,11 @@ public class WebSocketConnection {
 
     public void send(UserGameCommand command) throws Exception {
         if (session != null && session.isOpen()) {
-            session.getRemote().sendString(gson.toJson(command));
+            if (binary) {
+                session.getRemote().sendBytes(ByteBuffer.wrap(BinaryMessageCodec.encode(command)));
+            } else {
+                session.getRemote().sendString(gson.toJson(command));
+            }
         } else {
             throw new Exception("WebSocket session is not open");
         }
@@ -1,5 +1,6 @@
 package client;
 
+import dataaccess.GameQuery;
 import datamodel.*;
 import org.junit.jupiter.api.*;
 import server.Server;
@@ -123,6 +124,17 @@ public class ServerFacadeTests {
         assertEquals(2, result.games().size());
     }
 
+    @Test
+    void listGamesPastOnePage() throws Exception {
+        facade.register("player1", "password", "p1@email.com");
+        for (int i = 0; i <= GameQuery.DEFAULT_LIMIT; i++) {
+            facade.createGame("Game " + i);
+        }
+        var result = facade.listGames();
+        assertEquals(GameQuery.DEFAULT_LIMIT + 1, result.games().size());
+        assertNull(result.nextCursor());
+    }
+
     @Test
     void listGamesWithoutAuth() {
         assertThrows(Exception.class, () -> facade.listGames());
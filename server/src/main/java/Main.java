@@ -1,10 +1,52 @@
+import handler.OutboundQueue;
 import server.Server;
+import service.PasswordHasher;
 
+/**
+ * Flags:
+ * <ul>
+ * <li>{@code --virtual-threads}: handle requests on virtual threads</li>
+ * <li>{@code --outbound-capacity=N}: messages that may wait to go out on one WebSocket</li>
+ * <li>{@code --outbound-overflow=drop-oldest-snapshot|disconnect}: what a full outbound queue does</li>
+ * <li>{@code --bcrypt-cost=N}: BCrypt work factor for new password hashes</li>
+ * <li>{@code --hash-threads=N}: passwords hashed or checked at once</li>
+ * <li>{@code --hash-queue=N}: hashes that may wait before logins get a 503</li>
+ * </ul>
+ */
 public class Main {
     public static void main(String[] args) {
-        Server server = new Server();
+        Server server = new Server(parseOptions(args));
         server.run(8080);
 
         System.out.println("♕ 240 Chess Server");
     }
-}
\ No newline at end of file
+
+    private static Server.Options parseOptions(String[] args) {
+        Server.Options options = Server.Options.defaults();
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+            OutboundQueue.Policy outbound = options.outboundPolicy();
+            PasswordHasher.Settings hashing = options.passwordHashing();
+            if (arg.equals("--virtual-threads")) {
+                options = options.withVirtualThreads(true);
+            } else if (arg.startsWith("--outbound-capacity=")) {
+                options = options.withOutboundPolicy(new OutboundQueue.Policy(Integer.parseInt(value), outbound.overflow()));
+            } else if (arg.startsWith("--outbound-overflow=")) {
+                OutboundQueue.Overflow overflow = OutboundQueue.Overflow.valueOf(value.toUpperCase().replace('-', '_'));
+                options = options.withOutboundPolicy(new OutboundQueue.Policy(outbound.capacity(), overflow));
+            } else if (arg.startsWith("--bcrypt-cost=")) {
+                options = options.withPasswordHashing(new PasswordHasher.Settings(
+                        Integer.parseInt(value), hashing.threads(), hashing.queueCapacity()));
+            } else if (arg.startsWith("--hash-threads=")) {
+                options = options.withPasswordHashing(new PasswordHasher.Settings(
+                        hashing.workFactor(), Integer.parseInt(value), hashing.queueCapacity()));
+            } else if (arg.startsWith("--hash-queue=")) {
+                options = options.withPasswordHashing(new PasswordHasher.Settings(
+                        hashing.workFactor(), hashing.threads(), Integer.parseInt(value)));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,124 @@
+package dataaccess;
+
+import model.AuthData;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process cache of auth token lookups.
+ * <p>
+ * Known tokens are kept for {@code ttlMillis} and unknown ones for the shorter
+ * {@code negativeTtlMillis}, so a client retrying with a bad token does not reach the
+ * database every time. The least recently used entries are dropped beyond
+ * {@code maxSize}. Deleting a token or clearing the store invalidates entries at once,
+ * including lookups of that token (or of any token, on a clear) that were still running
+ * when the invalidation happened; a token deleted through another server only stops
+ * working here once its entry expires. Lookups of other tokens are unaffected.
+ */
+public class AuthTokenCache {
+
+    public static final long DEFAULT_TTL_MILLIS = 5 * 60_000;
+    public static final long DEFAULT_NEGATIVE_TTL_MILLIS = 2_000;
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries;
+    // Lookups in flight per token; invalidating a token drops its record, fencing them off
+    private final Map<String, InFlight> loading = new HashMap<>();
+    private long hits;
+    private long misses;
+
+    public AuthTokenCache() {
+        this(DEFAULT_TTL_MILLIS, DEFAULT_NEGATIVE_TTL_MILLIS, DEFAULT_MAX_SIZE);
+    }
+
+    public AuthTokenCache(long ttlMillis, long negativeTtlMillis, int maxSize) {
+        this(ttlMillis, negativeTtlMillis, maxSize, System::nanoTime);
+    }
+
+    AuthTokenCache(long ttlMillis, long negativeTtlMillis, int maxSize, LongSupplier clock) {
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.negativeTtlNanos = negativeTtlMillis * 1_000_000;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+        AuthData load(String authToken) throws DataAccessException;
+    }
+
+    /**
+     * Returns the cached lookup for {@code authToken}, or loads it and caches the
+     * result, which is {@code null} for an unknown token.
+     */
+    public AuthData get(String authToken, Loader loader) throws DataAccessException {
+        if (authToken == null) {return null;}
+        InFlight inFlight;
+        synchronized (this) {
+            Entry entry = entries.get(authToken);
+            if (entry != null && isLive(entry)) {
+                hits++;
+                return entry.authData;
+            }
+            misses++;
+            inFlight = loading.computeIfAbsent(authToken, token -> new InFlight());
+            inFlight.count++;
+        }
+        AuthData authData = null;
+        boolean loaded = false;
+        try {
+            authData = loader.load(authToken);
+            loaded = true;
+        } finally {
+            synchronized (this) {
+                boolean current = loading.get(authToken) == inFlight;
+                if (--inFlight.count == 0 && current) {loading.remove(authToken);}
+                // Not over an entry put while the lookup ran, which is at least as fresh
+                Entry entry = entries.get(authToken);
+                long ttl = authData == null ? negativeTtlNanos : ttlNanos;
+                if (loaded && current && ttl > 0 && (entry == null || !isLive(entry))) {
+                    entries.put(authToken, new Entry(authData, clock.getAsLong() + ttl));
+                }
+            }
+        }
+        return authData;
+    }
+
+    public synchronized void put(AuthData authData) {
+        if (ttlNanos > 0) {entries.put(authData.authToken(), new Entry(authData, clock.getAsLong() + ttlNanos));}
+    }
+
+    public synchronized void invalidate(String authToken) {
+        loading.remove(authToken);
+        entries.remove(authToken);
+    }
+
+    public synchronized void invalidateAll() {
+        loading.clear();
+        entries.clear();
+    }
+
+    public synchronized long hits() {return hits;}
+    public synchronized long misses() {return misses;}
+    public synchronized int size() {return entries.size();}
+
+    private boolean isLive(Entry entry) {return clock.getAsLong() - entry.expiresAt < 0;}
+
+    private record Entry(AuthData authData, long expiresAt) {
+    }
+
+    private static class InFlight {
+        private int count;
+    }
+}
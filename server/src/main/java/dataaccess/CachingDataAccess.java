@@ -0,0 +1,373 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import datamodel.GameDTO;
+import model.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind cache of games in front of another {@link DataAccess}.
+ * <p>
+ * Games are served from memory once read or created. Game updates and moves are
+ * queued per game instead of written through: consecutive updates to a game collapse
+ * into one, and its queued moves are written as a single batch. A background thread
+ * flushes everything queued every {@code flushIntervalMillis}, and a writer that finds
+ * {@code maxDirtyGames} games queued flushes before returning, so at most that many
+ * games' worth of changes are ever unwritten. {@link #close()} flushes what is left.
+ * <p>
+ * Cached games are never handed out or changed in place: readers get a copy, and a
+ * write replaces the cached record with a copy of what was written. Up to
+ * {@code maxCachedGames} games are kept, least recently used evicted first.
+ * <p>
+ * Auth token lookups go through an {@link AuthTokenCache}; users are passed straight through.
+ */
+public class CachingDataAccess implements DataAccess, AutoCloseable {
+
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 200;
+    public static final int DEFAULT_MAX_DIRTY_GAMES = 256;
+    public static final int DEFAULT_MAX_CACHED_GAMES = 1024;
+
+    private final DataAccess delegate;
+    private final AuthTokenCache authTokens;
+    private final int maxDirtyGames;
+    private final int maxCachedGames;
+    // Access-ordered for LRU eviction; guarded by gamesLock
+    private final Map<Integer, GameData> games = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock gamesLock = new ReentrantLock();
+    private final Map<Integer, PendingWrite> dirty = new ConcurrentHashMap<>();
+    // Games whose write has been taken off the queue but not yet finished
+    private final Set<Integer> writing = ConcurrentHashMap.newKeySet();
+    // A lock rather than a monitor: flushes block on JDBC, which would pin a virtual thread
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+
+    public CachingDataAccess(DataAccess delegate) {
+        this(delegate, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_DIRTY_GAMES, DEFAULT_MAX_CACHED_GAMES);
+    }
+
+    public CachingDataAccess(DataAccess delegate, long flushIntervalMillis, int maxDirtyGames, int maxCachedGames) {
+        this(delegate, flushIntervalMillis, maxDirtyGames, maxCachedGames, new AuthTokenCache());
+    }
+
+    public CachingDataAccess(DataAccess delegate, long flushIntervalMillis, int maxDirtyGames, int maxCachedGames,
+                             AuthTokenCache authTokens) {
+        this.delegate = delegate;
+        this.authTokens = authTokens;
+        this.maxDirtyGames = maxDirtyGames;
+        this.maxCachedGames = maxCachedGames;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void createUser(UserData user) throws DataAccessException {
+        delegate.createUser(user);
+    }
+
+    @Override
+    public UserData getUser(String userName) throws DataAccessException {
+        return delegate.getUser(userName);
+    }
+
+    @Override
+    public GameData createGame(String gameName) throws DataAccessException {
+        GameData game = delegate.createGame(gameName);
+        cacheIfAbsent(copyOf(game));
+        return game;
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        GameData game = load(gameID);
+        return game == null ? null : copyOf(game);
+    }
+
+    // Stored rows, with the cached copy in place of any game that has unwritten changes.
+    @Override
+    public Collection<GameData> listGames() throws DataAccessException {
+        Collection<GameData> result = new ArrayList<>();
+        for (GameData game : delegate.listGames()) {
+            GameData cached = cached(game.gameID());
+            result.add(cached == null ? game : copyOf(cached));
+        }
+        return result;
+    }
+
+    // Moves never change a summary, so only queued player or name changes need writing first.
+    @Override
+    public List<GameDTO> listGameSummaries(GameQuery query) throws DataAccessException {
+        if (dirty.values().stream().anyMatch(pending -> pending.metadataChanged)) {flush();}
+        return delegate.listGameSummaries(query);
+    }
+
+    /**
+     * Takes the players and name from {@code game}. Its game state is kept only if it is
+     * at least as far along as the cached one, so an update built from a copy read before
+     * a move, like a join, does not undo the move.
+     */
+    @Override
+    public void updateGame(GameData game) throws DataAccessException {
+        if (load(game.gameID()) == null) {throw new DataAccessException("Error updating game: game not found");}
+        ChessGame state = new ChessGame(game.game());
+        gamesLock.lock();
+        try {
+            GameData cached = games.get(game.gameID());
+            if (cached != null && cached.game().getPly() > state.getPly()) {
+                boolean over = state.isGameOver();
+                state = new ChessGame(cached.game());
+                if (over) {state.gameOver();}
+            } else if (cached != null && cached.game().isGameOver()) {
+                state.gameOver();
+            }
+            GameData merged = new GameData(game.gameID(), game.whiteUsername(), game.blackUsername(),
+                    game.gameName(), state);
+            games.put(game.gameID(), merged);
+            dirty.compute(game.gameID(), (id, pending) -> {
+                if (pending == null) {pending = new PendingWrite();}
+                pending.latest = merged;
+                pending.metadataChanged = true;
+                return pending;
+            });
+        } finally {
+            gamesLock.unlock();
+        }
+        flushIfFull();
+    }
+
+    @Override
+    public void appendMove(GameData game, ChessMove move) throws DataAccessException {
+        appendMoves(game, List.of(move));
+    }
+
+    // Only the game state comes from the caller; the cached players and name may be newer.
+    @Override
+    public void appendMoves(GameData game, List<ChessMove> moves) throws DataAccessException {
+        if (load(game.gameID()) == null) {throw new DataAccessException("Error appending move: game not found");}
+        ChessGame state = new ChessGame(game.game());
+        gamesLock.lock();
+        try {
+            GameData cached = games.getOrDefault(game.gameID(), game);
+            GameData merged = new GameData(game.gameID(), cached.whiteUsername(), cached.blackUsername(),
+                    cached.gameName(), state);
+            games.put(game.gameID(), merged);
+            dirty.compute(game.gameID(), (id, pending) -> {
+                if (pending == null) {pending = new PendingWrite();}
+                pending.latest = merged;
+                pending.moves.addAll(moves);
+                return pending;
+            });
+        } finally {
+            gamesLock.unlock();
+        }
+        flushIfFull();
+    }
+
+    @Override
+    public void createAuthToken(AuthData authToken) throws DataAccessException {
+        delegate.createAuthToken(authToken);
+        authTokens.put(authToken);
+    }
+
+    @Override
+    public AuthData getAuthToken(String authToken) throws DataAccessException {
+        return authTokens.get(authToken, delegate::getAuthToken);
+    }
+
+    @Override
+    public void deleteAuthToken(String authToken) throws DataAccessException {
+        authTokens.invalidate(authToken);
+        try {
+            delegate.deleteAuthToken(authToken);
+        } finally {
+            // Again afterwards, so a lookup that read the row during the delete is not kept
+            authTokens.invalidate(authToken);
+        }
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        flushLock.lock();
+        try {
+            dirty.clear();
+            gamesLock.lock();
+            try {
+                games.clear();
+            } finally {
+                gamesLock.unlock();
+            }
+            authTokens.invalidateAll();
+            try {
+                delegate.clear();
+            } finally {
+                authTokens.invalidateAll();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void updateGame(int gameID, GameData gameData) throws DataAccessException {
+        updateGame(new GameData(gameID, gameData.whiteUsername(), gameData.blackUsername(),
+                gameData.gameName(), gameData.game()));
+    }
+
+    /**
+     * Writes every queued change to the underlying store. Games whose write fails are
+     * queued again ahead of anything recorded since, and the first failure is rethrown.
+     * Moves the store rejects as out of sequence can never be written: they are dropped
+     * along with anything queued after them, and the game is reloaded on next use.
+     */
+    public void flush() throws DataAccessException {
+        flushLock.lock();
+        try {
+            DataAccessException failure = null;
+            for (Integer gameID : new ArrayList<>(dirty.keySet())) {
+                // Pinned before it stops being dirty, so it cannot be evicted and reloaded mid-write
+                writing.add(gameID);
+                PendingWrite pending = dirty.remove(gameID);
+                try {
+                    if (pending != null) {pending.writeTo(delegate);}
+                } catch (MoveSequenceException e) {
+                    discard(gameID);
+                    System.err.println("Dropped unwritable moves for game " + gameID + ": " + e.getMessage());
+                } catch (DataAccessException e) {
+                    dirty.merge(gameID, pending, (next, failed) -> failed.followedBy(next));
+                    if (failure == null) {failure = e;}
+                } finally {
+                    writing.remove(gameID);
+                }
+            }
+            if (failure != null) {throw failure;}
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Stops the background flusher and writes everything still queued.
+     */
+    @Override
+    public void close() throws DataAccessException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (DataAccessException e) {
+            System.err.println("Write-behind flush failed, will retry: " + e.getMessage());
+        }
+    }
+
+    // A failed write stays queued for the next flush. Rethrowing it would fail this
+    // caller's change for what may be another game's problem.
+    private void flushIfFull() {
+        if (dirty.size() >= maxDirtyGames) {flushQuietly();}
+    }
+
+    // The cached record, loading it from the delegate on a miss. Never handed out as is.
+    private GameData load(int gameID) throws DataAccessException {
+        GameData game = cached(gameID);
+        if (game != null) {return game;}
+        game = delegate.getGame(gameID);
+        return game == null ? null : cacheIfAbsent(copyOf(game));
+    }
+
+    private GameData cached(int gameID) {
+        gamesLock.lock();
+        try {
+            return games.get(gameID);
+        } finally {
+            gamesLock.unlock();
+        }
+    }
+
+    private GameData cacheIfAbsent(GameData game) {
+        gamesLock.lock();
+        try {
+            GameData existing = games.putIfAbsent(game.gameID(), game);
+            if (existing != null) {return existing;}
+            evictClean();
+            return game;
+        } finally {
+            gamesLock.unlock();
+        }
+    }
+
+    // Least recently used first. Only games with nothing queued or being written can be dropped.
+    // Checked in this order: flush requeues a failed write before it unpins the game.
+    private void evictClean() {
+        var iterator = games.keySet().iterator();
+        while (games.size() > maxCachedGames && iterator.hasNext()) {
+            Integer gameID = iterator.next();
+            if (!writing.contains(gameID) && !dirty.containsKey(gameID)) {iterator.remove();}
+        }
+    }
+
+    // Forgets everything cached or queued for the game, so the next use reads the store.
+    private void discard(int gameID) {
+        gamesLock.lock();
+        try {
+            dirty.remove(gameID);
+            games.remove(gameID);
+        } finally {
+            gamesLock.unlock();
+        }
+    }
+
+    private static GameData copyOf(GameData game) {
+        return new GameData(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(),
+                game.game() == null ? null : new ChessGame(game.game()));
+    }
+
+    /**
+     * Changes to one game not yet written. {@code latest} is the cached record, which is
+     * never changed in place, so it still holds the recorded state when the write runs.
+     */
+    private static class PendingWrite {
+        private GameData latest;
+        private boolean metadataChanged;
+        private final List<ChessMove> moves = new ArrayList<>();
+
+        void writeTo(DataAccess store) throws DataAccessException {
+            if (!moves.isEmpty()) {
+                store.appendMoves(latest, moves);
+                moves.clear();
+            }
+            if (metadataChanged) {store.updateGame(latest);}
+        }
+
+        // Combines a failed write with one recorded after it was taken off the queue.
+        PendingWrite followedBy(PendingWrite next) {
+            PendingWrite combined = new PendingWrite();
+            combined.latest = next.latest;
+            combined.metadataChanged = metadataChanged || next.metadataChanged;
+            combined.moves.addAll(moves);
+            combined.moves.addAll(next.moves);
+            return combined;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded pool of JDBC connections. Callers borrow a connection and return it by
+ * closing it, exactly as they would close an unpooled connection.
+ * <p>
+ * At most {@code maxSize} connections exist at once; borrowers wait up to the borrow
+ * timeout for one to free up. Idle connections beyond {@code minSize} are closed after
+ * the idle timeout, connections that sat idle are checked with the validation query
+ * before being handed out, and connections held longer than the leak threshold are
+ * reported. Filling in a stack trace on every borrow is costly, so the stack that
+ * borrowed a leaked connection is only reported when {@code leakStackTraces} is set.
+ * <p>
+ * The permits double as the bound on concurrent database work: with request handlers
+ * on virtual threads, any number of callers can queue here cheaply while at most
+ * {@code maxSize} of them hold a MySQL connection.
+ */
+public class ConnectionPool {
+
+    record Config(String url, String username, String password, String catalog,
+                  int minSize, int maxSize, long borrowTimeoutMillis, long idleTimeoutMillis,
+                  long validationIntervalMillis, String validationQuery, long leakThresholdMillis,
+                  boolean leakStackTraces, int statementCacheSize) {
+    }
+
+    /**
+     * Point-in-time pool metrics. Wait times are how long borrowers blocked for a connection;
+     * statement counters are summed over every connection's prepared-statement cache.
+     */
+    public record Stats(int active, int idle, int waiting, long borrows, long timeouts, long averageWaitMicros,
+                        long maxWaitMicros, long leaksDetected,
+                        long statementHits, long statementMisses, long statementEvictions) {
+    }
+
+    private final Config config;
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Map<PooledConnection, Lease> leases = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+    private final AtomicLong statementEvictions = new AtomicLong();
+
+    ConnectionPool(Config config) {
+        this.config = config;
+        this.permits = new Semaphore(config.maxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, config.idleTimeoutMillis() / 2);
+        if (config.leakThresholdMillis() > 0) {period = Math.max(1000, Math.min(period, config.leakThresholdMillis() / 2));}
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(config.borrowTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + config.borrowTimeoutMillis() + " ms waiting for a connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {pooled = open();}
+            Lease lease = new Lease(pooled);
+            leases.put(pooled, lease);
+            return lease.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    Stats stats() {
+        long count = borrows.get();
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        return new Stats(leases.size(), idleCount, permits.getQueueLength(), count, timeouts.get(),
+                count == 0 ? 0 : totalWaitNanos.get() / count / 1000, maxWaitNanos.get() / 1000, leaksDetected.get(),
+                statementHits.get(), statementMisses.get(), statementEvictions.get());
+    }
+
+    /**
+     * Closes the idle connections and stops housekeeping. Connections still borrowed are
+     * closed as they come back rather than returned to the pool.
+     */
+    void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        synchronized (idle) {
+            for (PooledConnection pooled : idle) {
+                closeQuietly(pooled);
+            }
+            idle.clear();
+        }
+    }
+
+    private void recordWait(long nanos) {
+        borrows.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // Most recently used first, so the tail of the deque is what ages out.
+    private PooledConnection takeIdle() {
+        while (true) {
+            PooledConnection pooled;
+            synchronized (idle) {
+                pooled = idle.pollFirst();
+            }
+            if (pooled == null) {return null;}
+            if (isUsable(pooled)) {return pooled;}
+            closeQuietly(pooled);
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastUsed < config.validationIntervalMillis()) {return true;}
+        try (var statement = pooled.connection.createStatement()) {
+            statement.execute(config.validationQuery());
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection connection = DriverManager.getConnection(config.url(), config.username(), config.password());
+        connection.setCatalog(config.catalog());
+        StatementCache statements = config.statementCacheSize() > 0
+                ? new StatementCache(connection, config.statementCacheSize(), statementHits, statementMisses, statementEvictions)
+                : null;
+        return new PooledConnection(connection, statements);
+    }
+
+    private void release(PooledConnection pooled) {
+        leases.remove(pooled);
+        try {
+            if (pooled.statements != null) {pooled.statements.releaseAll();}
+            if (!pooled.connection.getAutoCommit()) {
+                pooled.connection.rollback();
+                pooled.connection.setAutoCommit(true);
+            }
+            pooled.lastUsed = System.currentTimeMillis();
+            synchronized (idle) {
+                if (!closed) {
+                    idle.addFirst(pooled);
+                    return;
+                }
+            }
+            closeQuietly(pooled);
+        } catch (SQLException e) {
+            closeQuietly(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    void housekeep() {
+        long now = System.currentTimeMillis();
+        List<PooledConnection> expired = new ArrayList<>();
+        synchronized (idle) {
+            int total = idle.size() + leases.size();
+            while (total > config.minSize() && !idle.isEmpty()
+                    && now - idle.peekLast().lastUsed > config.idleTimeoutMillis()) {
+                expired.add(idle.pollLast());
+                total--;
+            }
+        }
+        // Closed outside the lock so borrowers never wait on the network to get at the deque
+        expired.forEach(ConnectionPool::closeQuietly);
+        for (Lease lease : leases.values()) {
+            if (config.leakThresholdMillis() > 0 && !lease.reported && now - lease.borrowedAt > config.leakThresholdMillis()) {
+                lease.reported = true;
+                leaksDetected.incrementAndGet();
+                System.err.println("Possible connection leak: held for " + (now - lease.borrowedAt) + " ms by "
+                        + lease.borrowerThread);
+                if (lease.borrowedBy != null) {lease.borrowedBy.printStackTrace();}
+            }
+        }
+    }
+
+    private static void closeQuietly(PooledConnection pooled) {
+        try {
+            pooled.connection.close();
+        } catch (SQLException ignored) {
+            // Already broken; nothing left to release.
+        }
+    }
+
+    private static class PooledConnection {
+        private final Connection connection;
+        private final StatementCache statements;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        PooledConnection(Connection connection, StatementCache statements) {
+            this.connection = connection;
+            this.statements = statements;
+        }
+    }
+
+    /**
+     * One checkout of a pooled connection. The proxy handed to the caller turns
+     * {@code close()} into a return to the pool and refuses use after that, and serves
+     * {@code prepareStatement(sql)} from the connection's statement cache.
+     */
+    private class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final Connection proxy;
+        private final long borrowedAt = System.currentTimeMillis();
+        private final String borrowerThread = Thread.currentThread().toString();
+        private final Exception borrowedBy = config.leakThresholdMillis() > 0 && config.leakStackTraces()
+                ? new Exception("Connection borrowed here") : null;
+        private volatile boolean reported;
+        // Not synchronized: the calls it guards block on JDBC, which would pin a virtual thread
+        private final ReentrantLock lock = new ReentrantLock();
+        private boolean closed;
+
+        Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+            this.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            lock.lock();
+            try {
+                return invokeLocked(proxy, method, args);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Object invokeLocked(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        release(pooled);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || pooled.connection.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                    if (closed) {throw new SQLException("Connection has been returned to the pool");}
+                }
+            }
+            if (isCacheable(method, args)) {
+                int keys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                return pooled.statements.prepare((String) args[0], keys);
+            }
+            try {
+                return method.invoke(pooled.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        // prepareStatement(String) and prepareStatement(String, int autoGeneratedKeys) only.
+        private boolean isCacheable(Method method, Object[] args) {
+            if (pooled.statements == null || !method.getName().equals("prepareStatement")) {return false;}
+            return args.length == 1 || (args.length == 2 && method.getParameterTypes()[1] == int.class);
+        }
+    }
+}
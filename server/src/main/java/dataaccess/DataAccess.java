@@ -1,8 +1,11 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessMove;
+import datamodel.GameDTO;
 import model.*;
 import java.util.Collection;
+import java.util.List;
 
 public interface DataAccess {
 
@@ -13,7 +16,19 @@ public interface DataAccess {
     GameData createGame(String gameName) throws DataAccessException;
     GameData getGame(int gameID) throws DataAccessException;
     Collection<GameData> listGames() throws DataAccessException;
+    /**
+     * IDs, players and names of the games matching {@code query}, without loading any game state.
+     */
+    List<GameDTO> listGameSummaries(GameQuery query) throws DataAccessException;
     void updateGame(GameData game) throws DataAccessException;
+    /**
+     * Records one move made on {@code game}, whose state already includes it.
+     */
+    void appendMove(GameData game, ChessMove move) throws DataAccessException;
+    /**
+     * Records several moves made on {@code game}, in order; its state already includes all of them.
+     */
+    void appendMoves(GameData game, List<ChessMove> moves) throws DataAccessException;
 
     void createAuthToken(AuthData authToken) throws DataAccessException;
     AuthData getAuthToken(String authToken) throws DataAccessException;
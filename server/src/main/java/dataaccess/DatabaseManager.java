@@ -8,6 +8,8 @@ public class DatabaseManager {
     private static String dbUsername;
     private static String dbPassword;
     private static String connectionUrl;
+    private static ConnectionPool.Config poolConfig;
+    private static volatile ConnectionPool pool;
 
     /*
      * Load the database information for the db.properties file.
@@ -30,10 +32,11 @@ public class DatabaseManager {
     }
 
     /**
-     * Create a connection to the database and sets the catalog based upon the
+     * Borrow a connection from the pool, with the catalog set based upon the
      * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
-     * The easiest way to do that is with a try-with-resource block.
+     * be short-lived, and you must close the connection when you are done with it
+     * so it goes back to the pool. The easiest way to do that is with a
+     * try-with-resource block.
      * <br/>
      * <code>
      * try (var conn = DatabaseManager.getConnection()) {
@@ -44,14 +47,44 @@ public class DatabaseManager {
     static Connection getConnection() throws DataAccessException {
         try {
             //do not wrap the following line with a try-with-resources
-            var conn = DriverManager.getConnection(connectionUrl, dbUsername, dbPassword);
-            conn.setCatalog(databaseName);
-            return conn;
+            return pool().borrow();
         } catch (SQLException ex) {
             throw new DataAccessException("failed to get connection", ex);
         }
     }
 
+    /**
+     * Current connection pool metrics, including how long callers waited to borrow.
+     */
+    public static ConnectionPool.Stats getPoolStats() {
+        return pool().stats();
+    }
+
+    /**
+     * Closes the connection pool. Connections borrowed afterwards come from a new pool.
+     */
+    public static void closePool() {
+        synchronized (DatabaseManager.class) {
+            if (pool != null) {
+                pool.close();
+                pool = null;
+            }
+        }
+    }
+
+    // Created on first use, after createDatabase(), since pooled connections set the catalog.
+    // Only creation takes the lock; every borrow after that reads the volatile field.
+    private static ConnectionPool pool() {
+        ConnectionPool current = pool;
+        if (current != null) {return current;}
+        synchronized (DatabaseManager.class) {
+            if (pool == null) {
+                pool = new ConnectionPool(poolConfig);
+            }
+            return pool;
+        }
+    }
+
     private static void loadPropertiesFromResources() {
         try (var propStream = Thread.currentThread().getContextClassLoader().getResourceAsStream("db.properties")) {
             if (propStream == null) {
@@ -73,5 +106,18 @@ public class DatabaseManager {
         var host = props.getProperty("db.host");
         var port = Integer.parseInt(props.getProperty("db.port"));
         connectionUrl = String.format("jdbc:mysql://%s:%d", host, port);
+
+        // Server-side prepares so a cached statement is parsed and planned by MySQL only once.
+        var poolUrl = connectionUrl + "?useServerPrepStmts=true&cachePrepStmts=false";
+        poolConfig = new ConnectionPool.Config(poolUrl, dbUsername, dbPassword, databaseName,
+                Integer.parseInt(props.getProperty("db.pool.minSize", "2")),
+                Integer.parseInt(props.getProperty("db.pool.maxSize", "10")),
+                Long.parseLong(props.getProperty("db.pool.borrowTimeoutMillis", "5000")),
+                Long.parseLong(props.getProperty("db.pool.idleTimeoutMillis", "300000")),
+                Long.parseLong(props.getProperty("db.pool.validationIntervalMillis", "30000")),
+                props.getProperty("db.pool.validationQuery", "SELECT 1"),
+                Long.parseLong(props.getProperty("db.pool.leakThresholdMillis", "60000")),
+                Boolean.parseBoolean(props.getProperty("db.pool.leakStackTraces", "false")),
+                Integer.parseInt(props.getProperty("db.pool.statementCacheSize", "64")));
     }
 }
@@ -0,0 +1,22 @@
+package dataaccess;
+
+/**
+ * One page of game summaries, in game ID order. Only games with an ID above
+ * {@code afterGameID} are returned, at most {@code limit} of them. A null filter
+ * matches every game.
+ *
+ * @param openSeatOnly only games with an empty white or black seat
+ * @param player       only games {@code player} sits in, as either color
+ * @param namePrefix   only games whose name starts with this, compared literally
+ */
+public record GameQuery(int afterGameID, int limit, boolean openSeatOnly, String player, String namePrefix) {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 500;
+
+    public static GameQuery firstPage() {return new GameQuery(0, DEFAULT_LIMIT, false, null, null);}
+
+    public GameQuery withLimit(int newLimit) {
+        return new GameQuery(afterGameID, newLimit, openSeatOnly, player, namePrefix);
+    }
+}
@@ -1,12 +1,16 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessMove;
+import datamodel.GameDTO;
 import model.*;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Random;
 
 
@@ -38,6 +42,19 @@ public class MemoryDataAccess implements DataAccess {
         return games.values();
     }
 
+    public List<GameDTO> listGameSummaries(GameQuery query) {
+        return games.values().stream()
+                .filter(game -> game.gameID() > query.afterGameID())
+                .filter(game -> !query.openSeatOnly() || game.whiteUsername() == null || game.blackUsername() == null)
+                .filter(game -> query.player() == null ||
+                        query.player().equals(game.whiteUsername()) || query.player().equals(game.blackUsername()))
+                .filter(game -> query.namePrefix() == null || game.gameName().startsWith(query.namePrefix()))
+                .sorted(Comparator.comparingInt(GameData::gameID))
+                .limit(query.limit())
+                .map(game -> new GameDTO(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName()))
+                .toList();
+    }
+
     public UserData getUser(String username) {
         return users.get(username);
     }
@@ -58,6 +75,14 @@ public class MemoryDataAccess implements DataAccess {
         }
     }
 
+    public void appendMove(GameData game, ChessMove move) {
+        updateGame(game);
+    }
+
+    public void appendMoves(GameData game, List<ChessMove> moves) {
+        updateGame(game);
+    }
+
     public void deleteAuthToken(String token) {
         authTokens.remove(token);
     }
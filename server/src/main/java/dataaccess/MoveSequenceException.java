@@ -0,0 +1,11 @@
+package dataaccess;
+
+/**
+ * Indicates moves were appended at plies that do not follow the game's move log, so
+ * the state they were made on is not the stored one. Retrying the same write cannot succeed.
+ */
+public class MoveSequenceException extends DataAccessException {
+    public MoveSequenceException(String message) {
+        super(message);
+    }
+}
@@ -1,14 +1,23 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import chess.PackedMove;
 import com.google.gson.Gson;
+import datamodel.GameDTO;
 import model.*;
+import serialization.GameStateCodec;
+import serialization.Serializer;
 import java.sql.*;
 import java.util.*;
 
 public class MySQLDataAccess implements DataAccess {
 
-    private final Gson gson = new Gson();
+    // A full snapshot is written every this many plies; moves in between only go to game_moves.
+    static final int SNAPSHOT_INTERVAL = 20;
+
+    private final Gson gson = Serializer.gson();
 
     public MySQLDataAccess() throws DataAccessException {
         configureDatabase();
@@ -18,6 +27,9 @@ public class MySQLDataAccess implements DataAccess {
         DatabaseManager.createDatabase();
         try (var conn = DatabaseManager.getConnection()) {
             createTables(conn);
+            migrateJsonGameState(conn);
+            migrateSnapshotPly(conn);
+            migrateSummaryIndexes(conn);
         } catch (SQLException e) {
             throw new DataAccessException("Unable to configure database: " + e.getMessage());
         }
@@ -45,7 +57,21 @@ public class MySQLDataAccess implements DataAccess {
                 whiteUsername VARCHAR(255),
                 blackUsername VARCHAR(255),
                 gameName VARCHAR(255) NOT NULL,
-                gameState TEXT NOT NULL
+                gameState VARBINARY(64) NOT NULL,
+                snapshotPly INT NOT NULL DEFAULT 0,
+                INDEX idx_games_white (whiteUsername),
+                INDEX idx_games_black (blackUsername),
+                INDEX idx_games_name (gameName)
+            )
+            """,
+                """
+            CREATE TABLE IF NOT EXISTS game_moves (
+                gameID INT NOT NULL,
+                ply INT NOT NULL,
+                move SMALLINT NOT NULL,
+                playedAt TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+                PRIMARY KEY (gameID, ply),
+                FOREIGN KEY (gameID) REFERENCES games(gameID) ON DELETE CASCADE
             )
             """
         };
@@ -56,6 +82,65 @@ public class MySQLDataAccess implements DataAccess {
         }
     }
 
+    /*
+     * Games used to be stored as Gson JSON in a TEXT column. Tables still in that layout
+     * are converted in place to the binary GameStateCodec form.
+     */
+    private void migrateJsonGameState(Connection conn) throws SQLException {
+        String typeQuery = "SELECT DATA_TYPE FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'games' AND COLUMN_NAME = 'gameState'";
+        try (var ps = conn.prepareStatement(typeQuery); var rs = ps.executeQuery()) {
+            if (!rs.next() || rs.getString(1).equalsIgnoreCase("varbinary")) {return;}
+        }
+        try (var ps = conn.prepareStatement(
+                "ALTER TABLE games CHANGE gameState legacyGameState TEXT NULL, ADD COLUMN gameState VARBINARY(64) NULL")) {
+            ps.executeUpdate();
+        }
+        try (var select = conn.prepareStatement("SELECT gameID, legacyGameState FROM games");
+             var update = conn.prepareStatement("UPDATE games SET gameState = ? WHERE gameID = ?");
+             var rs = select.executeQuery()) {
+            while (rs.next()) {
+                update.setBytes(1, GameStateCodec.encode(readLegacyGame(rs.getString("legacyGameState"))));
+                update.setInt(2, rs.getInt("gameID"));
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+        try (var ps = conn.prepareStatement(
+                "ALTER TABLE games MODIFY gameState VARBINARY(64) NOT NULL, DROP COLUMN legacyGameState")) {
+            ps.executeUpdate();
+        }
+    }
+
+    private void migrateSnapshotPly(Connection conn) throws SQLException {
+        String columnQuery = "SELECT 1 FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'games' AND COLUMN_NAME = 'snapshotPly'";
+        try (var ps = conn.prepareStatement(columnQuery); var rs = ps.executeQuery()) {
+            if (rs.next()) {return;}
+        }
+        try (var ps = conn.prepareStatement("ALTER TABLE games ADD COLUMN snapshotPly INT NOT NULL DEFAULT 0")) {
+            ps.executeUpdate();
+        }
+    }
+
+    // Game listing filters by player and name prefix; tables created before that lack the indexes.
+    private void migrateSummaryIndexes(Connection conn) throws SQLException {
+        String indexQuery = "SELECT 1 FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'games' AND INDEX_NAME = 'idx_games_name'";
+        try (var ps = conn.prepareStatement(indexQuery); var rs = ps.executeQuery()) {
+            if (rs.next()) {return;}
+        }
+        try (var ps = conn.prepareStatement("ALTER TABLE games ADD INDEX idx_games_white (whiteUsername), " +
+                "ADD INDEX idx_games_black (blackUsername), ADD INDEX idx_games_name (gameName)")) {
+            ps.executeUpdate();
+        }
+    }
+
+    // The shared ChessGame adapter reads both the original ChessPiece[8][8] board JSON and the bitboard layout.
+    private ChessGame readLegacyGame(String json) {
+        return json == null ? new ChessGame() : gson.fromJson(json, ChessGame.class);
+    }
+
     @Override
     public void createUser(UserData user) throws DataAccessException {
 
@@ -106,7 +191,7 @@ public class MySQLDataAccess implements DataAccess {
                 ps.setString(1, null);  // whiteUsername starts as null
                 ps.setString(2, null);  // blackUsername starts as null
                 ps.setString(3, gameName);
-                ps.setString(4, gson.toJson(new ChessGame()));  // Create empty ChessGame as JSON
+                ps.setBytes(4, GameStateCodec.encode(new ChessGame()));
                 ps.executeUpdate();
                 try (var rs = ps.getGeneratedKeys()) {
                     if (rs.next()) {
@@ -124,13 +209,12 @@ public class MySQLDataAccess implements DataAccess {
     @Override
     public GameData getGame(int gameID) throws DataAccessException {
         try (var conn = DatabaseManager.getConnection()) {
-            String statement = "SELECT gameID, whiteUsername, blackUsername, gameName, gameState FROM games WHERE gameID = ?";
+            String statement = "SELECT gameID, whiteUsername, blackUsername, gameName, gameState, snapshotPly FROM games WHERE gameID = ?";
             try (var ps = conn.prepareStatement(statement)) {
                 ps.setInt(1, gameID);
                 try (var rs = ps.executeQuery()) {
                     if (rs.next()) {
-                        String gameStateJson = rs.getString("gameState");
-                        ChessGame game = gson.fromJson(gameStateJson, ChessGame.class);
+                        ChessGame game = loadGame(conn, gameID, rs.getBytes("gameState"), rs.getInt("snapshotPly"));
                         return new GameData(
                                 rs.getInt("gameID"),
                                 rs.getString("whiteUsername"),
@@ -151,12 +235,12 @@ public class MySQLDataAccess implements DataAccess {
     public Collection<GameData> listGames() throws DataAccessException {
         Collection<GameData> games = new ArrayList<>();
         try (var conn = DatabaseManager.getConnection()) {
-            String statement = "SELECT gameID, whiteUsername, blackUsername, gameName, gameState FROM games";
+            String statement = "SELECT gameID, whiteUsername, blackUsername, gameName, gameState, snapshotPly FROM games";
             try (var ps = conn.prepareStatement(statement)) {
                 try (var rs = ps.executeQuery()) {
                     while (rs.next()) {
-                        String gameStateJson = rs.getString("gameState");
-                        ChessGame game = gson.fromJson(gameStateJson, ChessGame.class);
+                        ChessGame game = loadGame(conn, rs.getInt("gameID"),
+                                rs.getBytes("gameState"), rs.getInt("snapshotPly"));
 
                         GameData gameData = new GameData(
                                 rs.getInt("gameID"),
@@ -175,16 +259,82 @@ public class MySQLDataAccess implements DataAccess {
         return games;
     }
 
+    @Override
+    public List<GameDTO> listGameSummaries(GameQuery query) throws DataAccessException {
+        StringBuilder statement = new StringBuilder(
+                "SELECT gameID, whiteUsername, blackUsername, gameName FROM games WHERE gameID > ?");
+        if (query.openSeatOnly()) {statement.append(" AND (whiteUsername IS NULL OR blackUsername IS NULL)");}
+        if (query.player() != null) {statement.append(" AND (whiteUsername = ? OR blackUsername = ?)");}
+        if (query.namePrefix() != null) {statement.append(" AND gameName LIKE ?");}
+        statement.append(" ORDER BY gameID LIMIT ?");
+
+        List<GameDTO> games = new ArrayList<>();
+        try (var conn = DatabaseManager.getConnection();
+             var ps = conn.prepareStatement(statement.toString())) {
+            int index = 1;
+            ps.setInt(index++, query.afterGameID());
+            if (query.player() != null) {
+                ps.setString(index++, query.player());
+                ps.setString(index++, query.player());
+            }
+            if (query.namePrefix() != null) {ps.setString(index++, likePrefix(query.namePrefix()));}
+            ps.setInt(index, query.limit());
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    games.add(new GameDTO(rs.getInt("gameID"), rs.getString("whiteUsername"),
+                            rs.getString("blackUsername"), rs.getString("gameName")));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error listing games: " + e.getMessage());
+        }
+        return games;
+    }
+
+    // LIKE pattern matching names that start with prefix, taking its wildcards literally.
+    private static String likePrefix(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    // Replays the moves logged after the snapshot on top of it.
+    private ChessGame loadGame(Connection conn, int gameID, byte[] snapshot, int snapshotPly)
+            throws SQLException, DataAccessException {
+        ChessGame game = GameStateCodec.decode(snapshot);
+        game.setPly(snapshotPly);
+        String statement = "SELECT move FROM game_moves WHERE gameID = ? AND ply > ? ORDER BY ply";
+        try (var ps = conn.prepareStatement(statement)) {
+            ps.setInt(1, gameID);
+            ps.setInt(2, snapshotPly);
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    try {
+                        game.makeMove(PackedMove.toChessMove(rs.getShort("move")));
+                    } catch (InvalidMoveException e) {
+                        throw new DataAccessException("Corrupt move log for game " + gameID + ": " + e.getMessage());
+                    }
+                }
+            }
+        }
+        return game;
+    }
+
     @Override
     public void updateGame(GameData game) throws DataAccessException {
         try (var conn = DatabaseManager.getConnection()) {
-            String statement = "UPDATE games SET whiteUsername = ?, blackUsername = ?, gameName = ?, gameState = ? WHERE gameID = ?";
+            // The state becomes the snapshot at the ply it covers. A state older than the stored
+            // snapshot, say from a join that raced a move, only updates the players and name.
+            String statement = "UPDATE games SET whiteUsername = ?, blackUsername = ?, gameName = ?, " +
+                    "gameState = IF(? >= snapshotPly, ?, gameState), snapshotPly = GREATEST(snapshotPly, ?) " +
+                    "WHERE gameID = ?";
             try (var ps = conn.prepareStatement(statement)) {
+                int ply = game.game().getPly();
                 ps.setString(1, game.whiteUsername());
                 ps.setString(2, game.blackUsername());
                 ps.setString(3, game.gameName());
-                ps.setString(4, gson.toJson(game.game()));  // Serialize ChessGame to JSON
-                ps.setInt(5, game.gameID());
+                ps.setInt(4, ply);
+                ps.setBytes(5, GameStateCodec.encode(game.game()));
+                ps.setInt(6, ply);
+                ps.setInt(7, game.gameID());
                 ps.executeUpdate();
             }
         } catch (SQLException e) {
@@ -192,6 +342,72 @@ public class MySQLDataAccess implements DataAccess {
         }
     }
 
+    @Override
+    public void appendMove(GameData game, ChessMove move) throws DataAccessException {
+        appendMoves(game, List.of(move));
+    }
+
+    /**
+     * The moves are logged at the plies ending with the one {@code game} is at, in one
+     * transaction. Repeating an append that already committed does nothing, so a caller
+     * that did not hear back can retry; any other mismatch with the log is rejected.
+     */
+    @Override
+    public void appendMoves(GameData game, List<ChessMove> moves) throws DataAccessException {
+        if (moves.isEmpty()) {return;}
+        int lastPly = game.game().getPly();
+        int firstPly = lastPly - moves.size() + 1;
+        try (var conn = DatabaseManager.getConnection()) {
+            // Anything not committed is rolled back when the pool takes the connection back
+            conn.setAutoCommit(false);
+            // Locking the game row serializes appends to one game
+            try (var ps = conn.prepareStatement("SELECT gameID FROM games WHERE gameID = ? FOR UPDATE")) {
+                ps.setInt(1, game.gameID());
+                try (var rs = ps.executeQuery()) {
+                    if (!rs.next()) {throw new DataAccessException("Error appending move: game not found");}
+                }
+            }
+            int loggedPly;
+            try (var ps = conn.prepareStatement("SELECT COALESCE(MAX(ply), 0) FROM game_moves WHERE gameID = ?")) {
+                ps.setInt(1, game.gameID());
+                try (var rs = ps.executeQuery()) {
+                    rs.next();
+                    loggedPly = rs.getInt(1);
+                }
+            }
+            if (loggedPly == lastPly) {return;}
+            if (loggedPly != firstPly - 1) {
+                throw new MoveSequenceException("Move log for game " + game.gameID() + " is at ply " + loggedPly +
+                        ", expected " + (firstPly - 1));
+            }
+            try (var ps = conn.prepareStatement("INSERT INTO game_moves (gameID, ply, move) VALUES (?, ?, ?)")) {
+                int ply = firstPly;
+                for (ChessMove move : moves) {
+                    ps.setInt(1, game.gameID());
+                    ps.setInt(2, ply++);
+                    ps.setShort(3, (short) PackedMove.of(move));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            // Snapshot once the log crosses an interval boundary; game holds the state after the last move
+            if (lastPly / SNAPSHOT_INTERVAL > (firstPly - 1) / SNAPSHOT_INTERVAL) {
+                try (var ps = conn.prepareStatement("UPDATE games SET gameState = ?, snapshotPly = ? WHERE gameID = ?")) {
+                    ps.setBytes(1, GameStateCodec.encode(game.game()));
+                    ps.setInt(2, lastPly);
+                    ps.setInt(3, game.gameID());
+                    ps.executeUpdate();
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            if (e.getErrorCode() == 1062) {  // Duplicate key error: another move took this ply
+                throw new MoveSequenceException("Concurrent move on game " + game.gameID());
+            }
+            throw new DataAccessException("Error appending move: " + e.getMessage());
+        }
+    }
+
     @Override
     public void createAuthToken(AuthData authToken) throws DataAccessException {
         try (var conn = DatabaseManager.getConnection()) {
@@ -252,7 +468,10 @@ public class MySQLDataAccess implements DataAccess {
             try (var ps = conn.prepareStatement("DELETE FROM auth_tokens")) {
                 ps.executeUpdate();
             }
-            // Delete from games
+            // Delete from game_moves and games
+            try (var ps = conn.prepareStatement("DELETE FROM game_moves")) {
+                ps.executeUpdate();
+            }
             try (var ps = conn.prepareStatement("DELETE FROM games")) {
                 ps.executeUpdate();
             }
@@ -267,27 +486,7 @@ public class MySQLDataAccess implements DataAccess {
 
     @Override
     public void updateGame(int gameID, GameData gameData) throws DataAccessException {
-        // Update the game in database
-        String sql = "UPDATE games SET whiteUsername = ?, blackUsername = ?, gameName = ?, game = ? WHERE gameID = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, gameData.whiteUsername());
-            stmt.setString(2, gameData.blackUsername());
-            stmt.setString(3, gameData.gameName());
-            stmt.setString(4, gson.toJson(gameData.game()));
-            stmt.setInt(5, gameID);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new DataAccessException("Database error updating game");
-        }
-    }
-
-    private Connection connection;
-
-    public MySQLDataAccess(String dbUrl, String dbUser, String dbPassword) throws DataAccessException {
-        try {
-            this.connection = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-        } catch (SQLException e) {
-            throw new DataAccessException("Failed to connect to database");
-        }
+        updateGame(new GameData(gameID, gameData.whiteUsername(), gameData.blackUsername(),
+                gameData.gameName(), gameData.game()));
     }
-}
\ No newline at end of file
+}
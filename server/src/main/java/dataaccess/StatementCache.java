@@ -0,0 +1,149 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of prepared statements for one physical connection, keyed by SQL text.
+ * <p>
+ * Callers get a proxy whose {@code close()} clears the parameters and keeps the
+ * statement for the next {@code prepareStatement} of the same SQL, so it is parsed
+ * and planned once per connection. A statement only really closes when it is evicted
+ * or its connection closes. If the same SQL is prepared again while the cached
+ * statement is still open, the second caller gets an ordinary uncached statement.
+ */
+class StatementCache {
+
+    private final Connection connection;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+    private final Map<String, CachedStatement> statements;
+
+    StatementCache(Connection connection, int maxSize, AtomicLong hits, AtomicLong misses, AtomicLong evictions) {
+        this.connection = connection;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= maxSize) {return false;}
+                eldest.getValue().evict();
+                StatementCache.this.evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "keys:" + sql : sql;
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.inUse) {
+            hits.incrementAndGet();
+            cached.inUse = true;
+            return cached.proxy;
+        }
+        misses.incrementAndGet();
+        PreparedStatement statement = connection.prepareStatement(sql, autoGeneratedKeys);
+        if (cached != null) {return statement;}
+        cached = new CachedStatement(key, statement);
+        cached.inUse = true;
+        statements.put(key, cached);
+        return cached.proxy;
+    }
+
+    /**
+     * Marks every statement closed when the connection goes back to the pool, since
+     * closing a connection implicitly closes the statements created on it.
+     */
+    void releaseAll() {
+        statements.values().removeIf(cached -> !cached.release());
+    }
+
+    private class CachedStatement implements InvocationHandler {
+        private final String key;
+        private final PreparedStatement statement;
+        private final PreparedStatement proxy;
+        private boolean inUse;
+        private boolean evicted;
+
+        CachedStatement(String key, PreparedStatement statement) {
+            this.key = key;
+            this.statement = statement;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        void evict() {
+            evicted = true;
+            if (!inUse) {closeQuietly();}
+        }
+
+        // False if the statement could not be reset and was closed; the caller must drop it from the cache.
+        boolean release() {
+            if (!inUse) {return true;}
+            inUse = false;
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                return true;
+            } catch (SQLException e) {
+                closeQuietly();
+                return false;
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (evicted) {
+                        inUse = false;
+                        closeQuietly();
+                    } else if (!release()) {
+                        statements.remove(key, this);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return !inUse || statement.isClosed();
+                }
+                case "getConnection" -> {
+                    throw new SQLException("Cached statements do not expose their connection");
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                    if (!inUse) {throw new SQLException("Statement has been closed");}
+                }
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+                // Closing with the connection anyway.
+            }
+        }
+    }
+}
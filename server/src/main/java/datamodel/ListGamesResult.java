@@ -4,5 +4,8 @@ import model.GameData;
 
 import java.util.Collection;
 
-public record ListGamesResult(Collection<GameDTO> games) {
+/**
+ * @param nextCursor pass back as {@code cursor} to get the following page; null on the last page
+ */
+public record ListGamesResult(Collection<GameDTO> games, Integer nextCursor) {
 }
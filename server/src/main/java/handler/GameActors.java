@@ -0,0 +1,83 @@
+package handler;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Runs work for each game one task at a time, in submission order, while different
+ * games run in parallel.
+ * <p>
+ * Each game with pending work has a mailbox drained by a single virtual thread. The
+ * thread exits once the mailbox is empty and the game's entry is dropped, so idle games
+ * cost nothing. Every change to whether a game has a running drainer happens inside
+ * {@code compute} on that game's key, which keeps a task from being stranded between a
+ * drainer deciding to exit and a new submission. A task that throws an {@link Error}
+ * kills its drainer, which hands what is left in the mailbox to a new one on the way out.
+ */
+class GameActors {
+
+    private final Map<Integer, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    void submit(int gameID, Runnable task) {
+        mailboxes.compute(gameID, (id, current) -> {
+            Mailbox mailbox = current == null ? new Mailbox() : current;
+            mailbox.tasks.add(task);
+            if (!mailbox.draining) {
+                mailbox.draining = true;
+                Thread.ofVirtual().name("game-" + id).start(() -> drain(id, mailbox));
+            }
+            return mailbox;
+        });
+    }
+
+    // Games with a running drainer.
+    int activeGames() {return mailboxes.size();}
+
+    private void drain(int gameID, Mailbox mailbox) {
+        boolean retired = false;
+        try {
+            while (true) {
+                Runnable task = mailbox.tasks.poll();
+                if (task == null) {
+                    // Retire only if nothing arrived since the poll; otherwise keep draining
+                    Mailbox remaining = mailboxes.computeIfPresent(gameID, (id, current) -> {
+                        if (!current.tasks.isEmpty()) {return current;}
+                        current.draining = false;
+                        return null;
+                    });
+                    if (remaining == null) {
+                        retired = true;
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Game " + gameID + " task failed: " + e.getMessage());
+                }
+            }
+        } finally {
+            if (!retired) {handOff(gameID, mailbox);}
+        }
+    }
+
+    // The drainer is dying with draining still set; start a replacement, or retire the mailbox if it is empty.
+    private void handOff(int gameID, Mailbox mailbox) {
+        mailboxes.compute(gameID, (id, current) -> {
+            if (mailbox.tasks.isEmpty()) {
+                mailbox.draining = false;
+                return null;
+            }
+            Thread.ofVirtual().name("game-" + id).start(() -> drain(id, mailbox));
+            return mailbox;
+        });
+    }
+
+    private static class Mailbox {
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private boolean draining;
+    }
+}
@@ -5,6 +5,7 @@ import dataaccess.*;
 import datamodel.*;
 import io.javalin.http.Context;
 import model.*;
+import serialization.Serializer;
 import service.*;
 
 import java.util.Map;
@@ -16,10 +17,14 @@ public class Handler {
     private final Gson gson;
 
     public Handler(DataAccess dataAccess) {
+        this(dataAccess, new PasswordHasher());
+    }
+
+    public Handler(DataAccess dataAccess, PasswordHasher passwordHasher) {
         this.dataAccess = dataAccess;
-        this.userService = new UserService(dataAccess);
+        this.userService = new UserService(dataAccess, passwordHasher);
         this.gameService = new GameService(dataAccess);
-        this.gson = new Gson();
+        this.gson = Serializer.gson();
     }
 
     // Clear endpoint - DELETE /db
@@ -105,7 +110,14 @@ public class Handler {
                 throw new DataAccessException("unauthorized");
             }
 
-            datamodel.ListGamesResult result = gameService.listGames(authToken);
+            GameQuery query = new GameQuery(
+                    intParam(ctx, "cursor", 0),
+                    intParam(ctx, "limit", GameQuery.DEFAULT_LIMIT),
+                    Boolean.parseBoolean(ctx.queryParam("open")),
+                    null,
+                    ctx.queryParam("name"));
+            boolean mineOnly = Boolean.parseBoolean(ctx.queryParam("mine"));
+            datamodel.ListGamesResult result = gameService.listGames(authToken, query, mineOnly);
             String gsonresult = gson.toJson(result);
             ctx.status(200);
             ctx.json(gsonresult);
@@ -117,6 +129,15 @@ public class Handler {
         }
     }
 
+    private static int intParam(Context ctx, String name, int defaultValue) throws DataAccessException {
+        String value = ctx.queryParam(name);
+        if (value == null || value.isEmpty()) {return defaultValue;}
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new DataAccessException("bad request");
+        }
+    }
 
     // Create game endpoint - POST /game
     public void createGame(Context ctx) {
@@ -225,6 +246,7 @@ public class Handler {
             case "bad request" -> 400;
             case "unauthorized" -> 401;
             case "already taken" -> 403;
+            case "service unavailable" -> 503;
             default -> 500;
         };
     }
@@ -0,0 +1,203 @@
+package handler;
+
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Messages waiting to go out on one WebSocket session, sent one at a time with Jetty's
+ * asynchronous {@code sendString} or {@code sendBytes}, so a slow client only ever delays
+ * itself. A session that negotiated the binary subprotocol is sent binary frames only.
+ * <p>
+ * The queue holds at most {@code capacity} messages. When it is full, the
+ * {@link Overflow} policy decides: drop the oldest queued board snapshot, which the
+ * incoming one supersedes, or disconnect the client. Only an incoming snapshot can
+ * replace a queued one; anything else arriving at a full queue disconnects under either
+ * policy, since notifications and errors must not be lost and a move delta needs the
+ * board it applies to.
+ */
+public class OutboundQueue implements WriteCallback {
+
+    public enum Overflow {
+        DROP_OLDEST_SNAPSHOT,
+        DISCONNECT
+    }
+
+    public record Policy(int capacity, Overflow overflow) {
+        public Policy {
+            if (capacity < 1) {throw new IllegalArgumentException("Outbound capacity must be at least 1");}
+            if (overflow == null) {throw new IllegalArgumentException("Outbound overflow policy is required");}
+        }
+    }
+
+    /**
+     * Point-in-time totals across every session. Send latency runs from queueing to
+     * Jetty reporting the write complete. Bytes encoded counts each frame once however
+     * many sessions it goes to; bytes sent counts it once per completed send.
+     */
+    public record Stats(long sent, long dropped, long disconnects, long failures, long maxDepth,
+                        long averageSendMicros, long maxSendMicros, long bytesEncoded, long bytesSent) {
+    }
+
+    /**
+     * One encoded message, shared unchanged by every session it is broadcast to. Exactly
+     * one of {@code text} and {@code binary} is set. {@code snapshot} marks a full board
+     * state that a later one replaces.
+     */
+    public record Frame(String text, byte[] binary, int bytes, boolean snapshot) {
+
+        public static Frame of(String text, boolean snapshot) {
+            Frame frame = new Frame(text, null, utf8Length(text), snapshot);
+            bytesEncoded.addAndGet(frame.bytes());
+            return frame;
+        }
+
+        public static Frame of(byte[] binary, boolean snapshot) {
+            Frame frame = new Frame(null, binary, binary.length, snapshot);
+            bytesEncoded.addAndGet(frame.bytes());
+            return frame;
+        }
+    }
+
+    private static final AtomicLong sent = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final AtomicLong disconnects = new AtomicLong();
+    private static final AtomicLong failures = new AtomicLong();
+    private static final AtomicLong maxDepth = new AtomicLong();
+    private static final AtomicLong totalSendNanos = new AtomicLong();
+    private static final AtomicLong maxSendNanos = new AtomicLong();
+    private static final AtomicLong bytesEncoded = new AtomicLong();
+    private static final AtomicLong bytesSent = new AtomicLong();
+
+    private final Session session;
+    private final Policy policy;
+    private final boolean binary;
+    private final Deque<Outbound> pending = new ArrayDeque<>();
+    private Outbound inFlight;
+    private boolean closed;
+
+    OutboundQueue(Session session, Policy policy, boolean binary) {
+        this.session = session;
+        this.policy = policy;
+        this.binary = binary;
+    }
+
+    public static Stats stats() {
+        long count = sent.get();
+        return new Stats(count, dropped.get(), disconnects.get(), failures.get(), maxDepth.get(),
+                count == 0 ? 0 : totalSendNanos.get() / count / 1000, maxSendNanos.get() / 1000,
+                bytesEncoded.get(), bytesSent.get());
+    }
+
+    boolean isBinary() {return binary;}
+
+    void offer(Frame frame) {
+        Outbound next = null;
+        boolean overflowed = false;
+        synchronized (this) {
+            if (closed) {return;}
+            if (pending.size() >= policy.capacity() && !makeRoom(frame)) {
+                disconnects.incrementAndGet();
+                closed = overflowed = true;
+                pending.clear();
+            } else {
+                next = enqueue(frame);
+            }
+        }
+        if (overflowed) {
+            session.close(StatusCode.POLICY_VIOLATION, "Too many unsent messages");
+        } else if (next != null) {
+            send(next);
+        }
+    }
+
+    // Returns the message to send now, or null if one is already in flight.
+    private Outbound enqueue(Frame frame) {
+        pending.addLast(new Outbound(frame, System.nanoTime()));
+        maxDepth.accumulateAndGet(pending.size(), Math::max);
+        if (inFlight != null) {return null;}
+        inFlight = pending.pollFirst();
+        return inFlight;
+    }
+
+    void close() {
+        synchronized (this) {
+            closed = true;
+            pending.clear();
+        }
+    }
+
+    @Override
+    public void writeSuccess() {
+        Outbound next;
+        synchronized (this) {
+            long nanos = System.nanoTime() - inFlight.queuedAt();
+            sent.incrementAndGet();
+            bytesSent.addAndGet(inFlight.frame().bytes());
+            totalSendNanos.addAndGet(nanos);
+            maxSendNanos.accumulateAndGet(nanos, Math::max);
+            next = inFlight = pending.pollFirst();
+        }
+        if (next != null) {send(next);}
+    }
+
+    @Override
+    public void writeFailed(Throwable x) {
+        failures.incrementAndGet();
+        close();
+        session.close(StatusCode.SERVER_ERROR, "Send failed");
+    }
+
+    private void send(Outbound message) {
+        if (!session.isOpen()) {
+            close();
+            return;
+        }
+        Frame frame = message.frame();
+        if (frame.binary() != null) {
+            // Each send gets its own buffer position; the bytes are shared
+            session.getRemote().sendBytes(ByteBuffer.wrap(frame.binary()).asReadOnlyBuffer(), this);
+        } else {
+            session.getRemote().sendString(frame.text(), this);
+        }
+    }
+
+    private boolean makeRoom(Frame incoming) {
+        if (policy.overflow() != Overflow.DROP_OLDEST_SNAPSHOT || !incoming.snapshot()) {return false;}
+        for (Iterator<Outbound> it = pending.iterator(); it.hasNext(); ) {
+            if (it.next().frame().snapshot()) {
+                it.remove();
+                dropped.incrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int utf8Length(String text) {
+        int bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private record Outbound(Frame frame, long queuedAt) {
+    }
+}
@@ -1,11 +1,16 @@
 package handler;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.annotations.*;
+import serialization.BinaryMessageCodec;
+import serialization.Serializer;
 import service.GameService;
+import service.Principal;
 import websocket.commands.UserGameCommand;
 import websocket.messages.ServerMessage;
+import dataaccess.DataAccessException;
 import model.GameData;
 import chess.ChessGame;
 import chess.ChessMove;
@@ -16,42 +21,97 @@ import java.util.concurrent.ConcurrentHashMap;
 @WebSocket
 public class WebSocketHandler {
     private static final Map<Integer, Set<Session>> gameSessions = new ConcurrentHashMap<>();
-    private static final Map<Session, Integer> sessionGameMap = new ConcurrentHashMap<>();
-    private static final Map<Session, String> sessionUserMap = new ConcurrentHashMap<>();
-    private final Gson gson = new Gson();
+    // Bound on CONNECT; later commands on the session are authorized against it, not the database
+    private static final Map<Session, Principal> principals = new ConcurrentHashMap<>();
+    // Commands for one game run one at a time and in order; different games run in parallel
+    private static final GameActors actors = new GameActors();
+    // Sessions that asked on CONNECT for MOVE_MADE deltas in place of a LOAD_GAME per move
+    private static final Set<Session> deltaSessions = ConcurrentHashMap.newKeySet();
+    // Sends go through a bounded queue per session so one slow client cannot hold up the rest
+    private static final Map<Session, OutboundQueue> outbound = new ConcurrentHashMap<>();
+    public static final OutboundQueue.Policy DEFAULT_OUTBOUND_POLICY =
+            new OutboundQueue.Policy(64, OutboundQueue.Overflow.DROP_OLDEST_SNAPSHOT);
+    private final Gson gson = Serializer.gson();
     private final GameService gameService;
+    private final OutboundQueue.Policy outboundPolicy;
+    private final boolean binary;
 
     public WebSocketHandler(GameService gameService) {
+        this(gameService, DEFAULT_OUTBOUND_POLICY, false);
+    }
+
+    /**
+     * One handler is created per connection.
+     *
+     * @param binary the connection negotiated the {@link BinaryMessageCodec#SUBPROTOCOL} subprotocol
+     */
+    public WebSocketHandler(GameService gameService, OutboundQueue.Policy outboundPolicy, boolean binary) {
         this.gameService = gameService;
+        this.outboundPolicy = outboundPolicy;
+        this.binary = binary;
     }
 
     @OnWebSocketConnect
     public void onConnect(Session session) throws IOException {
+        outbound.put(session, new OutboundQueue(session, outboundPolicy, binary));
         System.out.println("WebSocket connection established");
     }
 
     @OnWebSocketMessage
     public void onMessage(Session session, String message) throws IOException {
         try {
-            UserGameCommand command = gson.fromJson(message, UserGameCommand.class);
+            receive(session, gson.fromJson(message, UserGameCommand.class));
+        } catch (JsonParseException e) {
+            sendErrorMessage(session, "Error: bad request");
+        } catch (Exception e) {
+            sendErrorMessage(session, "Error: " + e.getMessage());
+        }
+    }
+
+    @OnWebSocketMessage
+    public void onMessage(Session session, byte[] payload, int offset, int length) throws IOException {
+        try {
+            receive(session, BinaryMessageCodec.decodeCommand(payload, offset, length));
+        } catch (IllegalArgumentException e) {
+            sendErrorMessage(session, "Error: bad request");
+        } catch (Exception e) {
+            sendErrorMessage(session, "Error: " + e.getMessage());
+        }
+    }
+
+    private void receive(Session session, UserGameCommand command) throws IOException {
+        // Checked here, before dispatch switches on the type inside the game's actor
+        if (command == null || command.getCommandType() == null || command.getGameID() == null) {
+            sendErrorMessage(session, "Error: bad request");
+            return;
+        }
+        actors.submit(command.getGameID(), () -> dispatch(session, command));
+    }
+
+    private void dispatch(Session session, UserGameCommand command) {
+        try {
             switch (command.getCommandType()) {
                 case CONNECT -> handleConnect(session, command);
                 case MAKE_MOVE -> handleMakeMove(session, command);
                 case LEAVE -> handleLeave(session, command);
                 case RESIGN -> handleResign(session, command);
+                case RESYNC -> handleResync(session, command);
             }
-        } catch (Exception e) {
-            sendErrorMessage(session, "Error: " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("WebSocket send failed: " + e.getMessage());
         }
     }
 
     @OnWebSocketClose
     public void onClose(Session session, int statusCode, String reason) {
-        Integer gameID = sessionGameMap.get(session);
-        if (gameID != null) {
-            gameSessions.getOrDefault(gameID, new HashSet<>()).remove(session);
-            sessionGameMap.remove(session);
-            sessionUserMap.remove(session);
+        OutboundQueue queue = outbound.remove(session);
+        if (queue != null) {
+            queue.close();
+        }
+        deltaSessions.remove(session);
+        Principal principal = principals.remove(session);
+        if (principal != null) {
+            gameSessions.getOrDefault(principal.gameID(), new HashSet<>()).remove(session);
         }
     }
 
@@ -63,20 +123,21 @@ public class WebSocketHandler {
     private void handleConnect(Session session, UserGameCommand command) throws IOException {
         try {
             int gameID = command.getGameID();
-            String authToken = command.getAuthToken();
-            GameData gameData = gameService.getGame(gameID, authToken);
-            String username = gameService.getUsernameFromToken(authToken);
-            sessionUserMap.put(session, username);
+            Principal principal = gameService.connect(gameID, command.getAuthToken());
+            GameData gameData = gameService.getGame(principal);
+            Principal previous = principals.put(session, principal);
+            if (previous != null && previous.gameID() != gameID) {
+                gameSessions.getOrDefault(previous.gameID(), new HashSet<>()).remove(session);
+            }
+            if (command.wantsMoveDeltas()) {
+                deltaSessions.add(session);
+            } else {
+                deltaSessions.remove(session);
+            }
             gameSessions.computeIfAbsent(gameID, k -> ConcurrentHashMap.newKeySet()).add(session);
-            sessionGameMap.put(session, gameID);
             sendMessage(session, new ServerMessage(gameData));
-            String playerType = "Observer";
-            if (username.equals(gameData.whiteUsername())) {
-                playerType = "WHITE";
-            } else if (username.equals(gameData.blackUsername())) {
-                playerType = "BLACK";
-            }
-            String notification = username + " joined as " + playerType;
+            String playerType = principal.isObserver() ? "Observer" : principal.color().toString();
+            String notification = principal.username() + " joined as " + playerType;
             broadcastToOthers(gameID, session, new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION, notification));
         } catch (Exception e) {
             sendErrorMessage(session, "Failed to connect to game: " + e.getMessage());
@@ -85,17 +146,15 @@ public class WebSocketHandler {
 
     private void handleMakeMove(Session session, UserGameCommand command) throws IOException {
         try {
-            int gameID = command.getGameID();
-            String authToken = command.getAuthToken();
+            Principal principal = authorize(session, command);
+            int gameID = principal.gameID();
             if (command.getMove() == null) {
                 sendErrorMessage(session, "Move is required");
                 return;
             }
-            gameService.makeMove(gameID, authToken, command.getMove());
-            GameData gameData = gameService.getGame(gameID, authToken);
-            broadcastToGame(gameID, new ServerMessage(gameData));
-            String username = sessionUserMap.get(session);
-            String moveNotification = username + " made a move from " +
+            GameData gameData = gameService.makeMove(principal, command.getMove());
+            broadcastMove(gameID, gameData, command.getMove());
+            String moveNotification = principal.username() + " made a move from " +
                     command.getMove().getStartPosition() + " to " + command.getMove().getEndPosition();
             broadcastToOthers(gameID, session, new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION, moveNotification));
             ChessGame.TeamColor teamTurn = gameData.game().getTeamTurn();
@@ -113,13 +172,12 @@ public class WebSocketHandler {
 
     private void handleLeave(Session session, UserGameCommand command) throws IOException {
         try {
-            int gameID = command.getGameID();
-            String authToken = command.getAuthToken();
-            gameService.leaveGame(gameID, authToken);
+            Principal principal = authorize(session, command);
+            int gameID = principal.gameID();
+            gameService.leaveGame(principal);
             gameSessions.getOrDefault(gameID, new HashSet<>()).remove(session);
-            String username = sessionUserMap.remove(session);
-            sessionGameMap.remove(session);
-            String leaveMsg = username + " left the game";
+            principals.remove(session);
+            String leaveMsg = principal.username() + " left the game";
             broadcastToGame(gameID, new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION, leaveMsg));
         } catch (Exception e) {
             sendErrorMessage(session, "Failed to leave game");
@@ -128,33 +186,73 @@ public class WebSocketHandler {
 
     private void handleResign(Session session, UserGameCommand command) throws IOException {
         try {
-            int gameID = command.getGameID();
-            String authToken = command.getAuthToken();
-            gameService.resignGame(gameID, authToken);
-            String username = sessionUserMap.get(session);
-            String resignMsg = username + " resigned";
-            broadcastToGame(gameID, new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION, resignMsg));
+            Principal principal = authorize(session, command);
+            gameService.resignGame(principal);
+            String resignMsg = principal.username() + " resigned";
+            broadcastToGame(principal.gameID(), new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION, resignMsg));
         } catch (Exception e) {
             sendErrorMessage(session, "Failed to resign");
         }
     }
 
+    private void handleResync(Session session, UserGameCommand command) throws IOException {
+        try {
+            Principal principal = authorize(session, command);
+            sendMessage(session, new ServerMessage(gameService.getGame(principal)));
+        } catch (Exception e) {
+            sendErrorMessage(session, "Failed to resync: " + e.getMessage());
+        }
+    }
+
+    // The command must come from the token and game the session connected with.
+    private Principal authorize(Session session, UserGameCommand command) throws DataAccessException {
+        Principal principal = principals.get(session);
+        if (principal == null || !principal.authToken().equals(command.getAuthToken())) {
+            throw new DataAccessException("unauthorized");
+        }
+        if (command.getGameID() == null || command.getGameID() != principal.gameID()) {
+            throw new DataAccessException("bad request");
+        }
+        return principal;
+    }
+
     private void sendMessage(Session session, ServerMessage message) throws IOException {
-        if (session.isOpen()) {
-            session.getRemote().sendString(gson.toJson(message));
+        send(session, new Outgoing(message));
+    }
+
+    private void send(Session session, Outgoing message) {
+        OutboundQueue queue = outbound.get(session);
+        if (queue != null && session.isOpen()) {
+            queue.offer(message.frame(queue.isBinary()));
         }
     }
 
     private void broadcastToGame(int gameID, ServerMessage message) throws IOException {
+        Outgoing outgoing = new Outgoing(message);
+        for (Session session : gameSessions.getOrDefault(gameID, new HashSet<>())) {
+            send(session, outgoing);
+        }
+    }
+
+    private void broadcastMove(int gameID, GameData gameData, ChessMove move) throws IOException {
+        Outgoing snapshot = null;
+        Outgoing delta = null;
         for (Session session : gameSessions.getOrDefault(gameID, new HashSet<>())) {
-            sendMessage(session, message);
+            if (deltaSessions.contains(session)) {
+                if (delta == null) {delta = new Outgoing(new ServerMessage(move, gameData.game()));}
+                send(session, delta);
+            } else {
+                if (snapshot == null) {snapshot = new Outgoing(new ServerMessage(gameData));}
+                send(session, snapshot);
+            }
         }
     }
 
     private void broadcastToOthers(int gameID, Session excludeSession, ServerMessage message) throws IOException {
+        Outgoing outgoing = new Outgoing(message);
         for (Session session : gameSessions.getOrDefault(gameID, new HashSet<>())) {
             if (!session.equals(excludeSession)) {
-                sendMessage(session, message);
+                send(session, outgoing);
             }
         }
     }
@@ -162,4 +260,23 @@ public class WebSocketHandler {
     private void sendErrorMessage(Session session, String error) throws IOException {
         sendMessage(session, new ServerMessage(ServerMessage.ServerMessageType.ERROR, error));
     }
+
+    // Broadcasts encode at most once per wire format and hand the same frame to every recipient's queue.
+    private final class Outgoing {
+        private final ServerMessage message;
+        private OutboundQueue.Frame text;
+        private OutboundQueue.Frame binary;
+
+        Outgoing(ServerMessage message) {this.message = message;}
+
+        OutboundQueue.Frame frame(boolean binaryFormat) {
+            boolean snapshot = message.getServerMessageType() == ServerMessage.ServerMessageType.LOAD_GAME;
+            if (binaryFormat) {
+                if (binary == null) {binary = OutboundQueue.Frame.of(BinaryMessageCodec.encode(message), snapshot);}
+                return binary;
+            }
+            if (text == null) {text = OutboundQueue.Frame.of(gson.toJson(message), snapshot);}
+            return text;
+        }
+    }
 }
@@ -2,30 +2,80 @@ package server;
 
 import dataaccess.*;
 import handler.Handler;
+import handler.OutboundQueue;
+import handler.WebSocketHandler;
 import io.javalin.Javalin;
 import org.eclipse.jetty.websocket.server.config.JettyWebSocketServletContainerInitializer;
-import server.websocket.WebSocketHandler;
+import serialization.BinaryMessageCodec;
+import service.PasswordHasher;
 
 public class Server {
     private final Javalin javalin;
     private final Handler handler;
+    private final CachingDataAccess dataAccess;
+
+    /**
+     * Startup settings.
+     *
+     * @param virtualThreads run HTTP requests and WebSocket handling on virtual threads
+     *                       instead of Jetty's platform thread pool. Database access stays
+     *                       bounded by the connection pool, which queues callers beyond
+     *                       its maximum size.
+     * @param outboundPolicy how many messages may wait to go out on one WebSocket, and
+     *                       what happens to a client that falls that far behind
+     * @param passwordHashing BCrypt cost and the size of the pool that runs it
+     */
+    public record Options(boolean virtualThreads, OutboundQueue.Policy outboundPolicy,
+                          PasswordHasher.Settings passwordHashing) {
+
+        public static Options defaults() {
+            return new Options(false, WebSocketHandler.DEFAULT_OUTBOUND_POLICY, PasswordHasher.Settings.defaults());
+        }
+
+        public Options withVirtualThreads(boolean virtualThreads) {
+            return new Options(virtualThreads, outboundPolicy, passwordHashing);
+        }
+
+        public Options withOutboundPolicy(OutboundQueue.Policy outboundPolicy) {
+            return new Options(virtualThreads, outboundPolicy, passwordHashing);
+        }
+
+        public Options withPasswordHashing(PasswordHasher.Settings passwordHashing) {
+            return new Options(virtualThreads, outboundPolicy, passwordHashing);
+        }
+    }
 
     public Server() {
+        this(Options.defaults());
+    }
+
+    public Server(boolean virtualThreads) {
+        this(Options.defaults().withVirtualThreads(virtualThreads));
+    }
+
+    public Server(Options options) {
         try {
-            DataAccess dataAccess = new MySQLDataAccess();
-            handler = new Handler(dataAccess);
+            dataAccess = new CachingDataAccess(new MySQLDataAccess());
+            handler = new Handler(dataAccess, new PasswordHasher(options.passwordHashing()));
 
             javalin = Javalin.create(config -> {
+                config.useVirtualThreads = options.virtualThreads();
                 config.staticFiles.add(staticFileConfig -> {
                     staticFileConfig.hostedPath = "/";
                     staticFileConfig.directory = "/web";
                 });
 
-                JettyWebSocketServletContainerInitializer.initialize(
-                        config.jetty.server,
-                        wsContainer -> wsContainer.addMapping("/ws",
-                                (req, resp) -> new WebSocketHandler(handler.getGameService()))
-                );
+                config.jetty.modifyServletContextHandler(context -> JettyWebSocketServletContainerInitializer.configure(
+                        context,
+                        (servletContext, wsContainer) -> wsContainer.addMapping("/ws", (req, resp) -> {
+                            // Clients that offer the binary subprotocol get binary frames; everyone else JSON
+                            boolean binary = req.getSubProtocols().contains(BinaryMessageCodec.SUBPROTOCOL);
+                            if (binary) {
+                                resp.setAcceptedSubProtocol(BinaryMessageCodec.SUBPROTOCOL);
+                            }
+                            return new WebSocketHandler(handler.getGameService(), options.outboundPolicy(), binary);
+                        })
+                ));
             });
 
             configureRoutes();
@@ -52,5 +102,12 @@ public class Server {
 
     public void stop() {
         javalin.stop();
+        try {
+            dataAccess.close();
+        } catch (DataAccessException e) {
+            System.err.println("Failed to flush games on shutdown: " + e.getMessage());
+        } finally {
+            DatabaseManager.closePool();
+        }
     }
 }
@@ -1,13 +1,17 @@
 package service;
 
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
 import dataaccess.DataAccess;
 import dataaccess.DataAccessException;
+import dataaccess.GameQuery;
 import model.AuthData;
 import model.GameData;
 import model.CreateGameResult;
+import datamodel.GameDTO;
 import datamodel.ListGamesResult;
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.List;
 
 public class GameService {
     private final DataAccess dataAccess;
@@ -29,23 +33,31 @@ public class GameService {
     }
 
     public ListGamesResult listGames(String authToken) throws DataAccessException {
+        return listGames(authToken, GameQuery.firstPage(), false);
+    }
+
+    /**
+     * One page of game summaries. With {@code mineOnly} the query's player is the caller.
+     */
+    public ListGamesResult listGames(String authToken, GameQuery query, boolean mineOnly) throws DataAccessException {
         AuthData authData = dataAccess.getAuthToken(authToken);
         if (authData == null) {
             throw new DataAccessException("unauthorized");
         }
-        Collection<GameData> allGames = dataAccess.listGames();
-        Collection<datamodel.GameDTO> games = new ArrayList<>();
-
-        for (GameData game : allGames) {
-            // Convert to DTO WITHOUT ChessGame
-            games.add(new datamodel.GameDTO(
-                    game.gameID(),
-                    game.whiteUsername(),
-                    game.blackUsername(),
-                    game.gameName()
-            ));
+        if (query.limit() < 1 || query.limit() > GameQuery.MAX_LIMIT || query.afterGameID() < 0) {
+            throw new DataAccessException("bad request");
         }
-        return new datamodel.ListGamesResult(games);
+        if (mineOnly) {
+            query = new GameQuery(query.afterGameID(), query.limit(), query.openSeatOnly(), authData.username(),
+                    query.namePrefix());
+        }
+        // One extra row says whether there is another page
+        List<GameDTO> games = dataAccess.listGameSummaries(query.withLimit(query.limit() + 1));
+        if (games.size() <= query.limit()) {
+            return new ListGamesResult(games, null);
+        }
+        games = games.subList(0, query.limit());
+        return new ListGamesResult(games, games.get(games.size() - 1).gameID());
     }
 
     public GameData getGame(int gameID, String authToken) throws DataAccessException {
@@ -123,77 +135,102 @@ public class GameService {
     }
 
 
-    public String getUsernameFromToken(String authToken) throws DataAccessException {
+    /**
+     * Validates {@code authToken} and resolves the caller's side in the game, so later
+     * commands on the same connection need no further auth lookups.
+     */
+    public Principal connect(int gameID, String authToken) throws DataAccessException {
         AuthData authData = dataAccess.getAuthToken(authToken);
         if (authData == null) {
             throw new DataAccessException("unauthorized");
         }
-        return authData.username();
-    }
 
-    public void makeMove(int gameID, String authToken, ChessMove move) throws DataAccessException {
-        // Validate auth
-        AuthData authData = dataAccess.getAuthToken(authToken);
-        if (authData == null) {
-            throw new DataAccessException("unauthorized");
+        GameData gameData = dataAccess.getGame(gameID);
+        if (gameData == null) {
+            throw new DataAccessException("bad request");
         }
 
-        GameData gameData = dataAccess.getGame(gameID);
+        ChessGame.TeamColor color = null;
+        if (authData.username().equals(gameData.whiteUsername())) {
+            color = ChessGame.TeamColor.WHITE;
+        } else if (authData.username().equals(gameData.blackUsername())) {
+            color = ChessGame.TeamColor.BLACK;
+        }
+        return new Principal(authToken, authData.username(), gameID, color);
+    }
+
+    public GameData getGame(Principal principal) throws DataAccessException {
+        GameData gameData = dataAccess.getGame(principal.gameID());
         if (gameData == null) {
             throw new DataAccessException("bad request");
         }
+        return gameData;
+    }
+
+    public GameData makeMove(Principal principal, ChessMove move) throws DataAccessException {
+        if (principal.isObserver()) {
+            throw new DataAccessException("observers cannot move");
+        }
+        GameData gameData = getGame(principal);
+        checkStillPlaying(principal, gameData);
 
         // Check if game is over
         if (gameData.game().isGameOver()) {
-            throw new DataAccessException("bad request");  // Can't move if game is over
+            throw new DataAccessException("game is over");  // Can't move if game is over
+        }
+        if (gameData.game().getTeamTurn() != principal.color()) {
+            throw new DataAccessException("not your turn");
         }
 
         // Make the move
-        gameData.game().makeMove(move);
+        try {
+            gameData.game().makeMove(move);
+        } catch (InvalidMoveException e) {
+            throw new DataAccessException(e.getMessage());
+        }
 
-        // Update database
-        dataAccess.updateGame(gameID, gameData);
+        // Log the move; the full game state is only rewritten periodically
+        dataAccess.appendMove(gameData, move);
+        return gameData;
     }
 
-    public void leaveGame(int gameID, String authToken) throws DataAccessException {
-        AuthData authData = dataAccess.getAuthToken(authToken);
-        if (authData == null) {
-            throw new DataAccessException("unauthorized");
-        }
-
-        GameData gameData = dataAccess.getGame(gameID);
-        if (gameData == null) {
-            throw new DataAccessException("bad request");
-        }
+    public void leaveGame(Principal principal) throws DataAccessException {
+        GameData gameData = getGame(principal);
 
         // Remove player from game
-        if (authData.username().equals(gameData.whiteUsername())) {
+        if (principal.color() == ChessGame.TeamColor.WHITE && principal.username().equals(gameData.whiteUsername())) {
             gameData = new GameData(gameData.gameID(), null, gameData.blackUsername(),
                     gameData.gameName(), gameData.game());
-        } else if (authData.username().equals(gameData.blackUsername())) {
+        } else if (principal.color() == ChessGame.TeamColor.BLACK && principal.username().equals(gameData.blackUsername())) {
             gameData = new GameData(gameData.gameID(), gameData.whiteUsername(), null,
                     gameData.gameName(), gameData.game());
+        } else {
+            return;
         }
 
-        dataAccess.updateGame(gameID, gameData);
+        dataAccess.updateGame(gameData);
     }
 
-    public void resignGame(int gameID, String authToken) throws DataAccessException {
-        AuthData authData = dataAccess.getAuthToken(authToken);
-        if (authData == null) {
-            throw new DataAccessException("unauthorized");
+    public void resignGame(Principal principal) throws DataAccessException {
+        if (principal.isObserver()) {
+            throw new DataAccessException("observers cannot resign");
         }
-
-        GameData gameData = dataAccess.getGame(gameID);
-        if (gameData == null) {
-            throw new DataAccessException("bad request");
+        GameData gameData = getGame(principal);
+        checkStillPlaying(principal, gameData);
+        if (gameData.game().isGameOver()) {
+            throw new DataAccessException("game is over");
         }
 
         // Mark game as over
         gameData.game().gameOver();
-        dataAccess.updateGame(gameID, gameData);
+        dataAccess.updateGame(gameData);
     }
 
-
-
+    // The side bound at connect time must still belong to this user; they may have left since.
+    private void checkStillPlaying(Principal principal, GameData gameData) throws DataAccessException {
+        String player = principal.color() == ChessGame.TeamColor.WHITE ? gameData.whiteUsername() : gameData.blackUsername();
+        if (!principal.username().equals(player)) {
+            throw new DataAccessException("unauthorized");
+        }
+    }
 }
@@ -0,0 +1,123 @@
+package service;
+
+import dataaccess.DataAccessException;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs BCrypt on a small dedicated pool so a burst of logins cannot take over the
+ * threads that serve game traffic.
+ * <p>
+ * At most {@code threads} hashes run at once and at most {@code queueCapacity} more
+ * wait. Anything beyond that fails straight away with "service unavailable", which the
+ * HTTP layer turns into a 503, rather than queueing without bound.
+ */
+public class PasswordHasher {
+
+    public static final int DEFAULT_WORK_FACTOR = 10;
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    /**
+     * @param workFactor    BCrypt log rounds; each step doubles the cost of a hash
+     * @param threads       hashes that may run at once
+     * @param queueCapacity hashes that may wait for a thread before callers are turned away
+     */
+    public record Settings(int workFactor, int threads, int queueCapacity) {
+        public Settings {
+            if (workFactor < 4 || workFactor > 30) {throw new IllegalArgumentException("BCrypt work factor must be between 4 and 30");}
+            if (threads < 1) {throw new IllegalArgumentException("Hash threads must be at least 1");}
+            if (queueCapacity < 1) {throw new IllegalArgumentException("Hash queue capacity must be at least 1");}
+        }
+
+        public static Settings defaults() {
+            return new Settings(DEFAULT_WORK_FACTOR, Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                    DEFAULT_QUEUE_CAPACITY);
+        }
+    }
+
+    /**
+     * Hash timings cover BCrypt itself; wait timings cover time spent queued before it.
+     */
+    public record Stats(long completed, long rejected, int queued, long averageHashMicros, long maxHashMicros,
+                        long averageWaitMicros) {
+    }
+
+    private final int workFactor;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalHashNanos = new AtomicLong();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    public PasswordHasher() {
+        this(Settings.defaults());
+    }
+
+    public PasswordHasher(Settings settings) {
+        this(settings.workFactor(), settings.threads(), settings.queueCapacity());
+    }
+
+    public PasswordHasher(int workFactor, int threads, int queueCapacity) {
+        this.workFactor = workFactor;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public String hash(String password) throws DataAccessException {
+        return run(() -> BCrypt.hashpw(password, BCrypt.gensalt(workFactor)));
+    }
+
+    public boolean check(String password, String hash) throws DataAccessException {
+        return run(() -> BCrypt.checkpw(password, hash));
+    }
+
+    public Stats stats() {
+        long count = completed.get();
+        return new Stats(count, rejected.get(), executor.getQueue().size(),
+                count == 0 ? 0 : totalHashNanos.get() / count / 1000, maxHashNanos.get() / 1000,
+                count == 0 ? 0 : totalWaitNanos.get() / count / 1000);
+    }
+
+    private <T> T run(Callable<T> work) throws DataAccessException {
+        long submitted = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return work.call();
+                } finally {
+                    long end = System.nanoTime();
+                    completed.incrementAndGet();
+                    totalWaitNanos.addAndGet(start - submitted);
+                    totalHashNanos.addAndGet(end - start);
+                    maxHashNanos.accumulateAndGet(end - start, Math::max);
+                }
+            }).get();
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new DataAccessException("service unavailable");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("service unavailable");
+        } catch (ExecutionException e) {
+            // BCrypt rejects malformed stored hashes with IllegalArgumentException
+            throw new DataAccessException("Error hashing password: " + e.getCause().getMessage());
+        }
+    }
+}
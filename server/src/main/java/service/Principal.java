@@ -0,0 +1,12 @@
+package service;
+
+import chess.ChessGame;
+
+/**
+ * An authenticated user connected to one game, resolved once when they connect.
+ * {@code color} is the side they play, or {@code null} for an observer.
+ */
+public record Principal(String authToken, String username, int gameID, ChessGame.TeamColor color) {
+
+    public boolean isObserver() {return color == null;}
+}
@@ -7,7 +7,6 @@ import model.UserData;
 
 import datamodel.LoginResult;
 import datamodel.RegisterResult;
-import org.mindrot.jbcrypt.BCrypt;
 
 import java.util.UUID;
 
@@ -15,8 +14,14 @@ import java.util.UUID;
 public class UserService {
 
     private final DataAccess dataAccess;
+    private final PasswordHasher passwordHasher;
 
-    public UserService(DataAccess dataAccess) {this.dataAccess = dataAccess;}
+    public UserService(DataAccess dataAccess) {this(dataAccess, new PasswordHasher());}
+
+    public UserService(DataAccess dataAccess, PasswordHasher passwordHasher) {
+        this.dataAccess = dataAccess;
+        this.passwordHasher = passwordHasher;
+    }
 
 
     public RegisterResult register(UserData user) throws DataAccessException {
@@ -28,7 +33,7 @@ public class UserService {
         if (dataAccess.getUser(user.username()) != null) {
             throw new DataAccessException("already taken");
         }
-        String hashedPassword = BCrypt.hashpw(user.password(), BCrypt.gensalt());
+        String hashedPassword = passwordHasher.hash(user.password());
         UserData newUser = new UserData(user.username(), hashedPassword, user.email());
         dataAccess.createUser(newUser);
         String authToken = UUID.randomUUID().toString();
@@ -46,7 +51,7 @@ public class UserService {
         if (existingUser == null) {
             throw new DataAccessException("unauthorized");
         }
-        if (!BCrypt.checkpw(user.password(), existingUser.password())) {
+        if (!passwordHasher.check(user.password(), existingUser.password())) {
             throw new DataAccessException("unauthorized");
         }
         String authToken = UUID.randomUUID().toString();
@@ -0,0 +1,109 @@
+package dataaccess;
+
+import model.AuthData;
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthTokenCacheTests {
+
+    private long now;
+    private int loads;
+    private Map<String, AuthData> store;
+    private AuthTokenCache cache;
+
+    @BeforeEach
+    public void setup() {
+        now = 0;
+        loads = 0;
+        store = new HashMap<>();
+        store.put("token", new AuthData("token", "alice"));
+        cache = new AuthTokenCache(1000, 100, 2, () -> now);
+    }
+
+    private AuthData get(String token) throws DataAccessException {
+        return cache.get(token, t -> {
+            loads++;
+            return store.get(t);
+        });
+    }
+
+    @Test
+    @DisplayName("Known Token Cached Until TTL")
+    public void knownTokenCached() throws DataAccessException {
+        assertEquals("alice", get("token").username());
+        assertEquals("alice", get("token").username());
+        assertEquals(1, loads);
+
+        now += 1_000 * 1_000_000L;
+        get("token");
+        assertEquals(2, loads);
+    }
+
+    @Test
+    @DisplayName("Unknown Token Cached Briefly")
+    public void unknownTokenCached() throws DataAccessException {
+        assertNull(get("missing"));
+        assertNull(get("missing"));
+        assertEquals(1, loads);
+
+        store.put("missing", new AuthData("missing", "bob"));
+        now += 100 * 1_000_000L;
+        assertEquals("bob", get("missing").username());
+        assertEquals(2, loads);
+    }
+
+    @Test
+    @DisplayName("Invalidate Drops Token")
+    public void invalidateDropsToken() throws DataAccessException {
+        get("token");
+        store.remove("token");
+        cache.invalidate("token");
+        assertNull(get("token"));
+    }
+
+    @Test
+    @DisplayName("Lookup Racing Invalidation Is Not Cached")
+    public void racingLookupNotCached() throws DataAccessException {
+        cache.get("token", t -> {
+            cache.invalidateAll();
+            return store.get(t);
+        });
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Lookup Racing Another Token's Invalidation Or A Put Is Cached")
+    public void racingOtherTokenCached() throws DataAccessException {
+        cache.get("token", t -> {
+            cache.invalidate("other");
+            cache.put(new AuthData("new", "bob"));
+            return store.get(t);
+        });
+        get("token");
+        assertEquals(0, loads);
+    }
+
+    @Test
+    @DisplayName("Lookup Racing Invalidation Of Its Token Is Not Cached")
+    public void racingTokenInvalidationNotCached() throws DataAccessException {
+        cache.get("token", t -> {
+            cache.invalidate("token");
+            return store.get(t);
+        });
+        get("token");
+        assertEquals(1, loads);
+    }
+
+    @Test
+    @DisplayName("Size Bounded")
+    public void sizeBounded() throws DataAccessException {
+        get("a");
+        get("b");
+        get("token");
+        assertEquals(2, cache.size());
+    }
+}
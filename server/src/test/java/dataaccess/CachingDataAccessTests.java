@@ -0,0 +1,241 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import model.GameData;
+import org.junit.jupiter.api.*;
+import serialization.GameStateCodec;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingDataAccessTests {
+
+    private MemoryDataAccess store;
+    private CachingDataAccess dataAccess;
+
+    @BeforeEach
+    public void setup() {
+        store = new MemoryDataAccess();
+        // Long interval so only explicit flushes write through
+        dataAccess = new CachingDataAccess(store, 60_000, 4, 16);
+    }
+
+    @Test
+    @DisplayName("Moves Are Written Only On Flush")
+    public void movesWrittenOnFlush() throws Exception {
+        GameData game = dataAccess.createGame("Cached Game");
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        game.game().makeMove(move);
+        dataAccess.appendMove(game, move);
+
+        // Replace the store's copy so a premature write would be visible
+        store.updateGame(new GameData(game.gameID(), null, null, "Cached Game", new ChessGame()));
+        assertEquals(game.game(), dataAccess.getGame(game.gameID()).game());
+        assertEquals(ChessGame.TeamColor.WHITE, store.getGame(game.gameID()).game().getTeamTurn());
+
+        dataAccess.flush();
+        assertEquals(game.game(), store.getGame(game.gameID()).game());
+    }
+
+    @Test
+    @DisplayName("Flush Writes Recorded State, Not Later Changes")
+    public void flushUsesRecordedState() throws Exception {
+        GameData game = dataAccess.createGame("Snapshot Game");
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        game.game().makeMove(move);
+        dataAccess.appendMove(game, move);
+        ChessGame recorded = GameStateCodec.decode(GameStateCodec.encode(game.game()));
+
+        // Changed in place but not yet recorded
+        game.game().makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+
+        dataAccess.flush();
+        assertEquals(recorded, store.getGame(game.gameID()).game());
+    }
+
+    @Test
+    @DisplayName("Readers Get Copies")
+    public void getGameReturnsCopy() throws Exception {
+        GameData game = dataAccess.createGame("Copied Game");
+        dataAccess.getGame(game.gameID()).game()
+                .makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+
+        assertEquals(new ChessGame(), dataAccess.getGame(game.gameID()).game());
+    }
+
+    @Test
+    @DisplayName("Stale Update Keeps Moves And Move Keeps Players")
+    public void staleUpdateKeepsMoves() throws Exception {
+        GameData game = dataAccess.createGame("Raced Game");
+        GameData joining = dataAccess.getGame(game.gameID());
+        GameData moving = dataAccess.getGame(game.gameID());
+
+        // A join and a move, each working from a copy read before the other's write
+        dataAccess.updateGame(new GameData(game.gameID(), "alice", null, joining.gameName(), joining.game()));
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        moving.game().makeMove(move);
+        dataAccess.appendMove(moving, move);
+        dataAccess.updateGame(new GameData(game.gameID(), "alice", "bob", joining.gameName(), joining.game()));
+
+        dataAccess.flush();
+        for (GameData retrieved : List.of(dataAccess.getGame(game.gameID()), store.getGame(game.gameID()))) {
+            assertEquals("alice", retrieved.whiteUsername());
+            assertEquals("bob", retrieved.blackUsername());
+            assertEquals(moving.game(), retrieved.game());
+        }
+    }
+
+    @Test
+    @DisplayName("Least Recently Used Game Is Evicted")
+    public void evictsLeastRecentlyUsed() throws Exception {
+        CachingDataAccess small = new CachingDataAccess(store, 60_000, 4, 2);
+        GameData first = small.createGame("First");
+        GameData second = small.createGame("Second");
+        small.getGame(first.gameID());
+        small.createGame("Third");
+
+        // Renamed behind the cache, so only a reload sees the new name
+        store.updateGame(new GameData(first.gameID(), null, null, "First Renamed", first.game()));
+        store.updateGame(new GameData(second.gameID(), null, null, "Second Renamed", second.game()));
+        assertEquals("First", small.getGame(first.gameID()).gameName());
+        assertEquals("Second Renamed", small.getGame(second.gameID()).gameName());
+    }
+
+    @Test
+    @DisplayName("Full Queue Flush Does Not Fail Other Games' Writes")
+    public void fullFlushKeepsFailure() throws Exception {
+        // Every write of "Failed Game" is rejected
+        DataAccess failingStore = (DataAccess) Proxy.newProxyInstance(DataAccess.class.getClassLoader(),
+                new Class<?>[]{DataAccess.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("updateGame") && "Failed Game".equals(((GameData) args[0]).gameName())) {
+                        throw new DataAccessException("write failed");
+                    }
+                    try {
+                        return method.invoke(store, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        CachingDataAccess failing = new CachingDataAccess(failingStore, 60_000, 2, 16);
+        GameData failed = failing.createGame("Failed Game");
+        GameData other = failing.createGame("Other Game");
+        failing.updateGame(new GameData(failed.gameID(), "white", null, failed.gameName(), failed.game()));
+
+        assertDoesNotThrow(() -> failing.updateGame(
+                new GameData(other.gameID(), "white", null, other.gameName(), other.game())));
+        assertEquals("white", store.getGame(other.gameID()).whiteUsername());
+        assertThrows(DataAccessException.class, failing::flush);
+    }
+
+    @Test
+    @DisplayName("Game Being Written Is Not Evicted")
+    public void writingGameNotEvicted() throws Exception {
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch finishWrite = new CountDownLatch(1);
+        DataAccess slowStore = (DataAccess) Proxy.newProxyInstance(DataAccess.class.getClassLoader(),
+                new Class<?>[]{DataAccess.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("appendMoves")) {
+                        writeStarted.countDown();
+                        finishWrite.await();
+                    }
+                    try {
+                        return method.invoke(store, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        CachingDataAccess small = new CachingDataAccess(slowStore, 60_000, 4, 1);
+        GameData game = small.getGame(small.createGame("Written Game").gameID());
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        game.game().makeMove(move);
+        small.appendMove(game, move);
+
+        Thread flusher = new Thread(() -> assertDoesNotThrow(small::flush));
+        flusher.start();
+        try {
+            assertTrue(writeStarted.await(5, TimeUnit.SECONDS));
+            // Mid-write: another game would evict it, and a reload would see the store's old row
+            small.createGame("Other Game");
+            assertEquals(game.game(), small.getGame(game.gameID()).game());
+        } finally {
+            finishWrite.countDown();
+            flusher.join();
+        }
+        assertEquals(game.game(), store.getGame(game.gameID()).game());
+    }
+
+    @Test
+    @DisplayName("Out Of Sequence Moves Are Dropped, Not Retried")
+    public void outOfSequenceDropped() throws Exception {
+        DataAccess rejectingStore = (DataAccess) Proxy.newProxyInstance(DataAccess.class.getClassLoader(),
+                new Class<?>[]{DataAccess.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("appendMoves")) {throw new MoveSequenceException("out of sequence");}
+                    try {
+                        return method.invoke(store, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        CachingDataAccess rejecting = new CachingDataAccess(rejectingStore, 60_000, 4, 16);
+        GameData game = rejecting.getGame(rejecting.createGame("Rejected Game").gameID());
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        game.game().makeMove(move);
+        rejecting.appendMove(game, move);
+
+        rejecting.flush();
+        // Nothing left queued, and the game is read back from the store
+        assertDoesNotThrow(rejecting::flush);
+        assertEquals(new ChessGame(), rejecting.getGame(game.gameID()).game());
+    }
+
+    @Test
+    @DisplayName("Updates Are Coalesced")
+    public void updatesCoalesced() throws Exception {
+        GameData game = dataAccess.createGame("Coalesced Game");
+        dataAccess.updateGame(new GameData(game.gameID(), "white", null, "Coalesced Game", game.game()));
+        dataAccess.updateGame(new GameData(game.gameID(), "white", "black", "Coalesced Game", game.game()));
+
+        dataAccess.flush();
+        GameData stored = store.getGame(game.gameID());
+        assertEquals("white", stored.whiteUsername());
+        assertEquals("black", stored.blackUsername());
+    }
+
+    @Test
+    @DisplayName("Dirty Window Is Bounded")
+    public void dirtyWindowBounded() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            GameData game = dataAccess.createGame("Game " + i);
+            dataAccess.updateGame(new GameData(game.gameID(), "white" + i, null, game.gameName(), game.game()));
+        }
+        // The fourth dirty game reached the limit and forced a flush
+        for (GameData game : store.listGames()) {
+            assertNotNull(game.whiteUsername());
+        }
+    }
+
+    @Test
+    @DisplayName("Append Moves To Unknown Game Fails")
+    public void appendMovesGameNotFound() {
+        GameData game = new GameData(9999, null, null, "Fake Game", new ChessGame());
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        assertThrows(DataAccessException.class, () -> dataAccess.appendMoves(game, List.of(move)));
+    }
+
+    @Test
+    @DisplayName("Close Flushes Pending Writes")
+    public void closeFlushes() throws Exception {
+        GameData game = dataAccess.createGame("Closing Game");
+        dataAccess.updateGame(new GameData(game.gameID(), "white", null, "Closing Game", game.game()));
+
+        dataAccess.close();
+        assertEquals("white", store.getGame(game.gameID()).whiteUsername());
+    }
+}
@@ -0,0 +1,123 @@
+package dataaccess;
+
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTests {
+
+    private FakeConnections fake;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    public void setup() {
+        fake = new FakeConnections().install();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (pool != null) {pool.close();}
+    }
+
+    private ConnectionPool pool(int maxSize, long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis) {
+        pool = new ConnectionPool(new ConnectionPool.Config(FakeConnections.URL, "user", "password", "chess",
+                0, maxSize, borrowTimeoutMillis, idleTimeoutMillis, 60_000, "SELECT 1",
+                leakThresholdMillis, false, 4));
+        return pool;
+    }
+
+    @Test
+    @DisplayName("Borrow Times Out When Pool Is Exhausted")
+    public void borrowTimeout() throws Exception {
+        pool(1, 20, 60_000, 0);
+        Connection held = pool.borrow();
+
+        assertThrows(SQLException.class, pool::borrow);
+        assertEquals(1, pool.stats().timeouts());
+
+        held.close();
+        pool.borrow().close();
+        assertEquals(1, fake.opened.size());
+    }
+
+    @Test
+    @DisplayName("Most Recently Returned Connection Is Reused First")
+    public void idleReusedMostRecentFirst() throws Exception {
+        pool(2, 1000, 60_000, 0);
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+        String secondName = second.toString();
+        first.close();
+        second.close();
+        assertEquals(2, pool.stats().idle());
+
+        Connection next = pool.borrow();
+        assertEquals(secondName, next.toString());
+        assertThrows(SQLException.class, () -> first.prepareStatement("SELECT 1"));
+    }
+
+    @Test
+    @DisplayName("Idle Connections Past The Idle Timeout Are Closed")
+    public void idleExpired() throws Exception {
+        pool(2, 1000, 0, 0);
+        pool.borrow().close();
+        Thread.sleep(5);
+
+        pool.housekeep();
+        assertEquals(0, pool.stats().idle());
+        assertTrue(fake.isClosed(fake.opened.get(0)));
+    }
+
+    @Test
+    @DisplayName("Uncommitted Work Is Rolled Back On Return")
+    public void autoCommitRestored() throws Exception {
+        pool(1, 1000, 60_000, 0);
+        Connection connection = pool.borrow();
+        connection.setAutoCommit(false);
+        connection.close();
+
+        assertTrue(pool.borrow().getAutoCommit());
+    }
+
+    @Test
+    @DisplayName("Connection Held Past The Leak Threshold Is Reported Once")
+    public void leakReported() throws Exception {
+        pool(1, 1000, 60_000, 1);
+        Connection held = pool.borrow();
+        Thread.sleep(5);
+
+        pool.housekeep();
+        pool.housekeep();
+        assertEquals(1, pool.stats().leaksDetected());
+        held.close();
+    }
+
+    @Test
+    @DisplayName("Returned Statements Come From The Cache")
+    public void statementsCached() throws Exception {
+        pool(1, 1000, 60_000, 0);
+        try (Connection connection = pool.borrow()) {
+            connection.prepareStatement("SELECT 1").close();
+        }
+        try (Connection connection = pool.borrow()) {
+            connection.prepareStatement("SELECT 1").close();
+        }
+
+        assertEquals(1, pool.stats().statementHits());
+        assertEquals(1, fake.prepared.size());
+    }
+
+    @Test
+    @DisplayName("Connections Returned After Close Are Closed")
+    public void returnAfterClose() throws Exception {
+        pool(1, 1000, 60_000, 0);
+        Connection held = pool.borrow();
+        pool.close();
+        held.close();
+
+        assertTrue(fake.isClosed(fake.opened.get(0)));
+    }
+}
@@ -0,0 +1,102 @@
+package dataaccess;
+
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * In-memory stand-ins for JDBC connections and statements, for testing the pool and
+ * statement cache without a database. Connections are opened through a driver for
+ * {@link #URL} and are named "connection-N" in opening order.
+ */
+class FakeConnections {
+
+    static final String URL = "jdbc:fake:pool";
+
+    final List<Connection> opened = new ArrayList<>();
+    final List<String> closed = new ArrayList<>();
+    final List<String> prepared = new ArrayList<>();
+    // Statements whose clearParameters() fails from now on
+    boolean failClearParameters;
+
+    private static FakeConnections current;
+
+    static {
+        try {
+            DriverManager.registerDriver(new FakeDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** Makes this the fake the driver opens connections on. */
+    FakeConnections install() {
+        current = this;
+        return this;
+    }
+
+    boolean isClosed(Connection connection) {return closed.contains(connection.toString());}
+
+    Connection open() {
+        String name = "connection-" + (opened.size() + 1);
+        boolean[] autoCommit = {true};
+        Connection connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "toString" -> name;
+                    case "close" -> {
+                        closed.add(name);
+                        yield null;
+                    }
+                    case "isClosed" -> closed.contains(name);
+                    case "getAutoCommit" -> autoCommit[0];
+                    case "setAutoCommit" -> {
+                        autoCommit[0] = (Boolean) args[0];
+                        yield null;
+                    }
+                    case "prepareStatement" -> statement((String) args[0]);
+                    case "createStatement" -> statement("createStatement");
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+        opened.add(connection);
+        return connection;
+    }
+
+    private PreparedStatement statement(String sql) {
+        prepared.add(sql);
+        boolean[] isClosed = {false};
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        isClosed[0] = true;
+                        yield null;
+                    }
+                    case "isClosed" -> isClosed[0];
+                    case "clearParameters" -> {
+                        if (failClearParameters) {throw new SQLException("connection reset");}
+                        yield null;
+                    }
+                    case "execute" -> {
+                        if (isClosed[0]) {throw new SQLException("statement closed");}
+                        yield true;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    private static class FakeDriver implements Driver {
+        public Connection connect(String url, Properties info) {return acceptsURL(url) ? current.open() : null;}
+        public boolean acceptsURL(String url) {return URL.equals(url);}
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {return new DriverPropertyInfo[0];}
+        public int getMajorVersion() {return 1;}
+        public int getMinorVersion() {return 0;}
+        public boolean jdbcCompliant() {return false;}
+        public Logger getParentLogger() {return Logger.getGlobal();}
+    }
+}
@@ -1,9 +1,14 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import datamodel.GameDTO;
 import model.*;
 import org.junit.jupiter.api.*;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class MySQLDataAccessTests {
@@ -203,6 +208,22 @@ public class MySQLDataAccessTests {
         assertEquals(0, games.size());
     }
 
+    @Test
+    @DisplayName("List Game Summaries Filters And Pages")
+    public void listGameSummaries() throws DataAccessException {
+        dataAccess.createUser(new UserData("player", "password", "player@example.com"));
+        GameData joined = dataAccess.createGame("Game_1");
+        dataAccess.updateGame(new GameData(joined.gameID(), "player", "player", joined.gameName(), joined.game()));
+        GameData open = dataAccess.createGame("Game%2");
+        dataAccess.createGame("Other");
+
+        assertEquals(2, dataAccess.listGameSummaries(new GameQuery(0, 2, false, null, null)).size());
+        assertEquals(List.of(new GameDTO(open.gameID(), null, null, "Game%2")),
+                dataAccess.listGameSummaries(new GameQuery(0, 10, true, null, "Game%")));
+        assertEquals(1, dataAccess.listGameSummaries(new GameQuery(0, 10, false, "player", null)).size());
+        assertEquals(0, dataAccess.listGameSummaries(new GameQuery(open.gameID(), 10, false, null, "Game")).size());
+    }
+
     // ========== UPDATE GAME TESTS ==========
 
     @Test
@@ -235,6 +256,121 @@ public class MySQLDataAccessTests {
         assertDoesNotThrow(() -> dataAccess.updateGame(game));
     }
 
+    // ========== APPEND MOVE TESTS ==========
+
+    @Test
+    @DisplayName("Append Move Success")
+    public void appendMoveSuccess() throws Exception {
+        GameData game = dataAccess.createGame("Move Log Game");
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        game.game().makeMove(move);
+
+        dataAccess.appendMove(game, move);
+
+        GameData retrieved = dataAccess.getGame(game.gameID());
+        assertEquals(game.game(), retrieved.game());
+        assertEquals(ChessGame.TeamColor.BLACK, retrieved.game().getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("Append Moves Past Snapshot Interval")
+    public void appendMovesPastSnapshot() throws Exception {
+        GameData game = dataAccess.createGame("Long Game");
+        ChessMove[] shuffle = {
+                new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+                new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null),
+                new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null),
+                new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null)};
+        for (int ply = 0; ply < MySQLDataAccess.SNAPSHOT_INTERVAL + 3; ply++) {
+            ChessMove move = shuffle[ply % shuffle.length];
+            game.game().makeMove(move);
+            dataAccess.appendMove(game, move);
+        }
+
+        GameData retrieved = dataAccess.getGame(game.gameID());
+        assertEquals(game.game(), retrieved.game());
+    }
+
+    @Test
+    @DisplayName("Append Move Batch Past Snapshot Interval")
+    public void appendMoveBatchPastSnapshot() throws Exception {
+        GameData game = dataAccess.createGame("Batched Game");
+        ChessMove[] shuffle = {
+                new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null),
+                new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null),
+                new ChessMove(new ChessPosition(3, 3), new ChessPosition(1, 2), null),
+                new ChessMove(new ChessPosition(6, 3), new ChessPosition(8, 2), null)};
+        List<ChessMove> moves = new ArrayList<>();
+        for (int ply = 0; ply < MySQLDataAccess.SNAPSHOT_INTERVAL + 1; ply++) {
+            ChessMove move = shuffle[ply % shuffle.length];
+            game.game().makeMove(move);
+            moves.add(move);
+        }
+
+        dataAccess.appendMoves(game, moves);
+
+        GameData retrieved = dataAccess.getGame(game.gameID());
+        assertEquals(game.game(), retrieved.game());
+    }
+
+    @Test
+    @DisplayName("Append Moves Retry Is Idempotent")
+    public void appendMovesRetry() throws Exception {
+        GameData game = dataAccess.createGame("Retried Game");
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        game.game().makeMove(move);
+
+        dataAccess.appendMoves(game, List.of(move));
+        dataAccess.appendMoves(game, List.of(move));
+
+        GameData retrieved = dataAccess.getGame(game.gameID());
+        assertEquals(game.game(), retrieved.game());
+        assertEquals(1, retrieved.game().getPly());
+    }
+
+    @Test
+    @DisplayName("Append Moves Out Of Sequence Fails")
+    public void appendMovesOutOfSequence() throws Exception {
+        GameData game = dataAccess.createGame("Gapped Game");
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        game.game().makeMove(move);
+        game.game().setPly(3);
+
+        assertThrows(DataAccessException.class, () -> dataAccess.appendMoves(game, List.of(move)));
+    }
+
+    @Test
+    @DisplayName("Stale Update Keeps Logged Moves")
+    public void staleUpdateKeepsMoves() throws Exception {
+        GameData game = dataAccess.createGame("Raced Game");
+        ChessGame stale = dataAccess.getGame(game.gameID()).game();
+        ChessMove[] shuffle = {
+                new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+                new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null),
+                new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null),
+                new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null)};
+        for (int ply = 0; ply < MySQLDataAccess.SNAPSHOT_INTERVAL + 1; ply++) {
+            ChessMove move = shuffle[ply % shuffle.length];
+            game.game().makeMove(move);
+            dataAccess.appendMove(game, move);
+        }
+
+        // A join that read the game before those moves
+        dataAccess.updateGame(new GameData(game.gameID(), "alice", null, game.gameName(), stale));
+
+        GameData retrieved = dataAccess.getGame(game.gameID());
+        assertEquals("alice", retrieved.whiteUsername());
+        assertEquals(game.game(), retrieved.game());
+    }
+
+    @Test
+    @DisplayName("Append Move Non-existent Game Fails")
+    public void appendMoveGameNotFound() {
+        GameData game = new GameData(9999, null, null, "Fake Game", new ChessGame());
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        assertThrows(DataAccessException.class, () -> dataAccess.appendMove(game, move));
+    }
+
     // ========== CLEAR TESTS ==========
 
     @Test
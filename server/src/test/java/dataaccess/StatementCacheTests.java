@@ -0,0 +1,108 @@
+package dataaccess;
+
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatementCacheTests {
+
+    private FakeConnections fake;
+    private AtomicLong hits;
+    private AtomicLong misses;
+    private AtomicLong evictions;
+    private StatementCache cache;
+
+    @BeforeEach
+    public void setup() {
+        fake = new FakeConnections();
+        Connection connection = fake.open();
+        hits = new AtomicLong();
+        misses = new AtomicLong();
+        evictions = new AtomicLong();
+        cache = new StatementCache(connection, 2, hits, misses, evictions);
+    }
+
+    private PreparedStatement prepare(String sql) throws Exception {
+        return cache.prepare(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    @Test
+    @DisplayName("Closed Statement Is Reused")
+    public void hit() throws Exception {
+        PreparedStatement first = prepare("SELECT 1");
+        first.close();
+        PreparedStatement second = prepare("SELECT 1");
+
+        assertSame(first, second);
+        assertFalse(second.isClosed());
+        assertEquals(1, hits.get());
+        assertEquals(1, fake.prepared.size());
+    }
+
+    @Test
+    @DisplayName("Statement Still Open Is Not Shared")
+    public void inUseNotShared() throws Exception {
+        PreparedStatement first = prepare("SELECT 1");
+        PreparedStatement second = prepare("SELECT 1");
+
+        assertNotSame(first, second);
+        assertEquals(2, misses.get());
+    }
+
+    @Test
+    @DisplayName("Least Recently Used Statement Is Evicted And Closed")
+    public void evict() throws Exception {
+        PreparedStatement a = prepare("A");
+        a.close();
+        prepare("B").close();
+        prepare("A").close();
+        prepare("C").close();
+
+        assertEquals(1, evictions.get());
+        prepare("A").close();
+        assertEquals(2, hits.get());
+        prepare("B");
+        assertEquals(List.of("A", "B", "C", "B"), fake.prepared);
+    }
+
+    @Test
+    @DisplayName("Use After Close Fails")
+    public void useAfterClose() throws Exception {
+        PreparedStatement statement = prepare("SELECT 1");
+        statement.close();
+
+        assertTrue(statement.isClosed());
+        assertThrows(java.sql.SQLException.class, statement::execute);
+    }
+
+    @Test
+    @DisplayName("Statement That Fails To Reset Is Dropped")
+    public void failedResetDropped() throws Exception {
+        fake.failClearParameters = true;
+        prepare("SELECT 1").close();
+        fake.failClearParameters = false;
+
+        PreparedStatement next = prepare("SELECT 1");
+        assertTrue(next.execute());
+        assertEquals(0, hits.get());
+        assertEquals(2, fake.prepared.size());
+    }
+
+    @Test
+    @DisplayName("Statement That Fails To Reset On Connection Release Is Dropped")
+    public void failedReleaseAllDropped() throws Exception {
+        prepare("SELECT 1");
+        fake.failClearParameters = true;
+        cache.releaseAll();
+        fake.failClearParameters = false;
+
+        assertTrue(prepare("SELECT 1").execute());
+        assertEquals(0, hits.get());
+    }
+}
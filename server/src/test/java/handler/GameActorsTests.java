@@ -0,0 +1,91 @@
+package handler;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameActorsTests {
+
+    private GameActors actors;
+
+    @BeforeEach
+    public void setup() {
+        actors = new GameActors();
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (actors.activeGames() > 0) {
+            assertTrue(System.nanoTime() < deadline, "mailboxes never retired");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Tasks For One Game Run In Order")
+    public void perGameOrdering() throws InterruptedException {
+        int count = 1000;
+        List<Integer> first = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> second = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(2 * count);
+        for (int i = 0; i < count; i++) {
+            int n = i;
+            actors.submit(1, () -> {
+                first.add(n);
+                done.countDown();
+            });
+            actors.submit(2, () -> {
+                second.add(n);
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, first.get(i));
+            assertEquals(i, second.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Task After Mailbox Retires Still Runs")
+    public void submitAfterRetire() throws InterruptedException {
+        CountDownLatch first = new CountDownLatch(1);
+        actors.submit(1, first::countDown);
+        assertTrue(first.await(5, TimeUnit.SECONDS));
+        awaitIdle();
+
+        CountDownLatch second = new CountDownLatch(1);
+        actors.submit(1, second::countDown);
+        assertTrue(second.await(5, TimeUnit.SECONDS));
+        awaitIdle();
+    }
+
+    @Test
+    @DisplayName("Failing Tasks Do Not Stop The Mailbox")
+    public void failuresDoNotWedge() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch after = new CountDownLatch(1);
+        // Queued behind a blocked task so both failures and the last task share one drainer
+        actors.submit(1, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        actors.submit(1, () -> {throw new IllegalStateException("task failed");});
+        actors.submit(1, () -> {throw new StackOverflowError();});
+        actors.submit(1, after::countDown);
+        release.countDown();
+
+        assertTrue(after.await(5, TimeUnit.SECONDS));
+        awaitIdle();
+    }
+}
@@ -0,0 +1,104 @@
+package handler;
+
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutboundQueueTests {
+
+    // Texts handed to the remote endpoint; a send completes only when the test says so
+    private List<String> sends;
+    private Integer closeStatus;
+    private Session session;
+
+    @BeforeEach
+    public void setup() {
+        sends = new ArrayList<>();
+        closeStatus = null;
+        RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(RemoteEndpoint.class.getClassLoader(),
+                new Class<?>[]{RemoteEndpoint.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("sendString")) {sends.add((String) args[0]);}
+                    return null;
+                });
+        session = (Session) Proxy.newProxyInstance(Session.class.getClassLoader(),
+                new Class<?>[]{Session.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "isOpen" -> closeStatus == null;
+                    case "getRemote" -> remote;
+                    case "close" -> {
+                        if (args != null && args.length == 2) {closeStatus = (Integer) args[0];}
+                        yield null;
+                    }
+                    default -> null;
+                });
+    }
+
+    private static OutboundQueue.Frame snapshot(String text) {return OutboundQueue.Frame.of(text, true);}
+    private static OutboundQueue.Frame notice(String text) {return OutboundQueue.Frame.of(text, false);}
+
+    @Test
+    @DisplayName("One Send In Flight At A Time")
+    public void oneSendInFlight() {
+        OutboundQueue queue = new OutboundQueue(session,
+                new OutboundQueue.Policy(8, OutboundQueue.Overflow.DISCONNECT), false);
+        queue.offer(notice("a"));
+        queue.offer(notice("b"));
+        queue.offer(notice("c"));
+        assertEquals(List.of("a"), sends);
+
+        queue.writeSuccess();
+        assertEquals(List.of("a", "b"), sends);
+        queue.writeSuccess();
+        queue.writeSuccess();
+        assertEquals(List.of("a", "b", "c"), sends);
+    }
+
+    @Test
+    @DisplayName("Incoming Snapshot Replaces Oldest Queued Snapshot")
+    public void snapshotReplacesSnapshot() {
+        OutboundQueue queue = new OutboundQueue(session,
+                new OutboundQueue.Policy(2, OutboundQueue.Overflow.DROP_OLDEST_SNAPSHOT), false);
+        queue.offer(notice("in flight"));
+        queue.offer(snapshot("old board"));
+        queue.offer(notice("note"));
+        queue.offer(snapshot("new board"));
+
+        queue.writeSuccess();
+        queue.writeSuccess();
+        assertNull(closeStatus);
+        assertEquals(List.of("in flight", "note", "new board"), sends);
+    }
+
+    @Test
+    @DisplayName("Full Queue Disconnects When Incoming Frame Is Not A Snapshot")
+    public void noticeOnFullQueueDisconnects() {
+        OutboundQueue queue = new OutboundQueue(session,
+                new OutboundQueue.Policy(2, OutboundQueue.Overflow.DROP_OLDEST_SNAPSHOT), false);
+        queue.offer(notice("in flight"));
+        queue.offer(snapshot("board"));
+        queue.offer(notice("note"));
+        queue.offer(notice("one too many"));
+
+        assertEquals(StatusCode.POLICY_VIOLATION, closeStatus);
+        queue.writeSuccess();
+        assertEquals(List.of("in flight"), sends);
+    }
+
+    @Test
+    @DisplayName("Disconnect Policy Never Drops A Snapshot")
+    public void disconnectPolicy() {
+        OutboundQueue queue = new OutboundQueue(session,
+                new OutboundQueue.Policy(1, OutboundQueue.Overflow.DISCONNECT), false);
+        queue.offer(notice("in flight"));
+        queue.offer(snapshot("old board"));
+        queue.offer(snapshot("new board"));
+
+        assertEquals(StatusCode.POLICY_VIOLATION, closeStatus);
+    }
+}
@@ -1,5 +1,8 @@
 package service;
 
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
 import dataaccess.*;
 import datamodel.*;
 import datamodel.ListGamesResult;
@@ -73,6 +76,46 @@ public class GameServiceTests {
         assertEquals("unauthorized", exception.getMessage());
     }
 
+    @Test
+    @DisplayName("List Games Pages With Cursor")
+    public void listGamesPagesWithCursor() throws DataAccessException {
+        for (int i = 0; i < 5; i++) {
+            gameService.createGame("Game" + i, validAuthToken);
+        }
+
+        ListGamesResult first = gameService.listGames(validAuthToken, new GameQuery(0, 3, false, null, null), false);
+        assertEquals(3, first.games().size());
+        assertNotNull(first.nextCursor());
+
+        ListGamesResult second = gameService.listGames(validAuthToken,
+                new GameQuery(first.nextCursor(), 3, false, null, null), false);
+        assertEquals(2, second.games().size());
+        assertNull(second.nextCursor());
+        for (GameDTO game : second.games()) {
+            assertTrue(game.gameID() > first.nextCursor());
+        }
+    }
+
+    @Test
+    @DisplayName("List Games Filters")
+    public void listGamesFilters() throws DataAccessException {
+        int mine = gameService.createGame("Mine", validAuthToken).gameID();
+        gameService.createGame("Other", validAuthToken);
+        gameService.joinGame(mine, "WHITE", validAuthToken);
+
+        ListGamesResult myGames = gameService.listGames(validAuthToken, GameQuery.firstPage(), true);
+        assertEquals(1, myGames.games().size());
+        assertEquals(mine, myGames.games().iterator().next().gameID());
+
+        ListGamesResult named = gameService.listGames(validAuthToken,
+                new GameQuery(0, 10, true, null, "Oth"), false);
+        assertEquals(1, named.games().size());
+        assertEquals("Other", named.games().iterator().next().gameName());
+
+        assertThrows(DataAccessException.class, () -> gameService.listGames(validAuthToken,
+                new GameQuery(0, 0, false, null, null), false));
+    }
+
     @Test
     @DisplayName("Join Game Success")
     public void joinGameSuccess() {
@@ -112,4 +155,40 @@ public class GameServiceTests {
             fail("Setup should not have thrown an exception: " + e.getMessage());
         }
     }
+
+    @Test
+    @DisplayName("Connect Resolves Player Color")
+    public void connectResolvesColor() throws DataAccessException {
+        int gameID = gameService.createGame("TestGame", validAuthToken).gameID();
+        gameService.joinGame(gameID, "BLACK", validAuthToken);
+
+        Principal principal = gameService.connect(gameID, validAuthToken);
+        assertEquals("testuser", principal.username());
+        assertEquals(ChessGame.TeamColor.BLACK, principal.color());
+    }
+
+    @Test
+    @DisplayName("Make Move Failure - Observer")
+    public void makeMoveFailureObserver() throws DataAccessException {
+        int gameID = gameService.createGame("TestGame", validAuthToken).gameID();
+        Principal observer = gameService.connect(gameID, validAuthToken);
+
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        DataAccessException exception = assertThrows(DataAccessException.class,
+                () -> gameService.makeMove(observer, move));
+        assertEquals("observers cannot move", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Make Move Failure - Not Your Turn")
+    public void makeMoveFailureWrongTurn() throws DataAccessException {
+        int gameID = gameService.createGame("TestGame", validAuthToken).gameID();
+        gameService.joinGame(gameID, "BLACK", validAuthToken);
+        Principal black = gameService.connect(gameID, validAuthToken);
+
+        ChessMove move = new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null);
+        DataAccessException exception = assertThrows(DataAccessException.class,
+                () -> gameService.makeMove(black, move));
+        assertEquals("not your turn", exception.getMessage());
+    }
 }
@@ -0,0 +1,50 @@
+package service;
+
+import dataaccess.DataAccessException;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHasherTests {
+
+    private PasswordHasher hasher;
+
+    @BeforeEach
+    public void setup() {
+        hasher = new PasswordHasher(4, 1, 4);
+    }
+
+    @Test
+    @DisplayName("Hash Then Check")
+    public void hashThenCheck() throws DataAccessException {
+        String hash = hasher.hash("password");
+        assertNotEquals("password", hash);
+        assertTrue(hasher.check("password", hash));
+        assertFalse(hasher.check("wrong", hash));
+    }
+
+    @Test
+    @DisplayName("Stats Count Completed Hashes")
+    public void statsCountCompleted() throws DataAccessException {
+        hasher.hash("password");
+        hasher.hash("password");
+        PasswordHasher.Stats stats = hasher.stats();
+        assertEquals(2, stats.completed());
+        assertEquals(0, stats.rejected());
+    }
+
+    @Test
+    @DisplayName("Settings Work Factor Used")
+    public void settingsWorkFactorUsed() throws DataAccessException {
+        PasswordHasher configured = new PasswordHasher(new PasswordHasher.Settings(5, 1, 1));
+        assertTrue(configured.hash("password").startsWith("$2a$05$"));
+    }
+
+    @Test
+    @DisplayName("Settings Rejected Out Of Range")
+    public void settingsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHasher.Settings(3, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHasher.Settings(10, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHasher.Settings(10, 1, 0));
+    }
+}
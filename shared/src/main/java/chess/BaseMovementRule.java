@@ -15,7 +15,7 @@ public abstract class BaseMovementRule implements MovementRule {
             col += colDelta;
             if (!board.isValidSquare(row, col)) {break;}
             if (board.isOccupiedByOwnPiece(row, col, start)) {break;}
-            ChessPosition newPosition = new ChessPosition(row, col);
+            ChessPosition newPosition = ChessPosition.of(row, col);
             moves.add(new ChessMove(start, newPosition, null));
             if (board.isOccupiedByOpponent(row, col, start)) {break;}
         }
@@ -28,7 +28,7 @@ public abstract class BaseMovementRule implements MovementRule {
 
         if (!board.isValidSquare(row, col)) {return;}
         if (!board.isOccupiedByOwnPiece(row, col, start)) {
-            ChessPosition newPosition = new ChessPosition(row, col);
+            ChessPosition newPosition = ChessPosition.of(row, col);
             moves.add(new ChessMove(start, newPosition, null));
         }
     }
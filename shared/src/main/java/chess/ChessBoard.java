@@ -2,50 +2,76 @@ package chess;
 
 import java.util.Arrays;
 
+/**
+ * Bitboard representation of the board. Each color/piece-type pair owns one
+ * {@code long} in which bit {@code (row - 1) * 8 + (col - 1)} is set when that
+ * piece stands on the square, so a1 is bit 0 and h8 is bit 63. Per-color and
+ * total occupancy masks are kept in sync on every {@link #addPiece} call, as is the
+ * {@link Zobrist} key of the piece placement.
+ * <p>
+ * These fields replaced the original {@code ChessPiece[8][8] board}, so reflective Gson
+ * no longer round-trips boards written in that shape. Boards go through the shared
+ * {@code serialization.Serializer}, which still reads both older layouts.
+ */
 public class ChessBoard {
 
-    private final ChessPiece[][] board = new ChessPiece[8][8];
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+    private static final ChessPiece[] PIECES = new ChessPiece[COLORS.length * TYPES.length];
+
+    static {
+        for (ChessGame.TeamColor color : COLORS) {
+            for (ChessPiece.PieceType type : TYPES) {
+                PIECES[pieceIndex(color, type)] = ChessPiece.of(color, type);
+            }
+        }
+    }
+
+    private final long[] pieces = new long[PIECES.length];
+    private final long[] colorOccupancy = new long[COLORS.length];
+    private long occupied;
+    private long key;
 
     public ChessBoard() {
     }
 
+    public ChessBoard(ChessBoard other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.colorOccupancy, 0, colorOccupancy, 0, colorOccupancy.length);
+        occupied = other.occupied;
+        key = other.key;
+    }
+
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        board[position.getRow() - 1][position.getColumn() - 1] = piece;
+        int square = squareIndex(position.getRow(), position.getColumn());
+        clearSquare(square);
+        if (piece != null) {
+            setSquare(square, pieceIndex(piece.getTeamColor(), piece.getPieceType()));
+        }
     }
 
     public ChessPiece getPiece(ChessPosition position) {
-        return board[position.getRow() - 1][position.getColumn() - 1];
+        int index = pieceIndexAt(squareIndex(position.getRow(), position.getColumn()));
+        return index < 0 ? null : PIECES[index];
     }
 
     public void resetBoard() {
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                board[i][j] = null;
-            }
-        }
-        // Set up the white
-        addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(1, 6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-
-        // Set up the black
-        addPiece(new ChessPosition(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-
-        for (int i = 1; i <= 8; i++) {
-            addPiece(new ChessPosition(7, i), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-            addPiece(new ChessPosition(2, i), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(colorOccupancy, 0L);
+        occupied = 0L;
+        key = 0L;
+
+        ChessPiece.PieceType[] backRank = {
+                ChessPiece.PieceType.ROOK, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+                ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING, ChessPiece.PieceType.BISHOP,
+                ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.ROOK};
+        for (int col = 1; col <= 8; col++) {
+            // Set up the white
+            setSquare(squareIndex(1, col), pieceIndex(ChessGame.TeamColor.WHITE, backRank[col - 1]));
+            setSquare(squareIndex(2, col), pieceIndex(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            // Set up the black
+            setSquare(squareIndex(7, col), pieceIndex(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            setSquare(squareIndex(8, col), pieceIndex(ChessGame.TeamColor.BLACK, backRank[col - 1]));
         }
     }
 
@@ -56,18 +82,70 @@ public class ChessBoard {
 
     public boolean isOccupiedByOwnPiece(int row, int col, ChessPosition fromPosition) {
         if (!isValidSquare(row, col)) {return false;}
-        ChessPiece fromPiece = getPiece(fromPosition);
-        ChessPiece targetPiece = getPiece(new ChessPosition(row, col));
-        if (fromPiece == null || targetPiece == null) {return false;}
-        return fromPiece.getTeamColor() == targetPiece.getTeamColor();
+        int from = squareIndex(fromPosition.getRow(), fromPosition.getColumn());
+        long target = 1L << squareIndex(row, col);
+        if ((colorOccupancy[0] & (1L << from)) != 0) {return (colorOccupancy[0] & target) != 0;}
+        if ((colorOccupancy[1] & (1L << from)) != 0) {return (colorOccupancy[1] & target) != 0;}
+        return false;
     }
 
     public boolean isOccupiedByOpponent(int row, int col, ChessPosition fromPosition) {
         if (!isValidSquare(row, col)) {return false;}
-        ChessPiece fromPiece = getPiece(fromPosition);
-        ChessPiece targetPiece = getPiece(new ChessPosition(row, col));
-        if (fromPiece == null || targetPiece == null) {return false;}
-        return fromPiece.getTeamColor() != targetPiece.getTeamColor();
+        int from = squareIndex(fromPosition.getRow(), fromPosition.getColumn());
+        long target = 1L << squareIndex(row, col);
+        if ((colorOccupancy[0] & (1L << from)) != 0) {return (colorOccupancy[1] & target) != 0;}
+        if ((colorOccupancy[1] & (1L << from)) != 0) {return (colorOccupancy[0] & target) != 0;}
+        return false;
+    }
+
+    static int squareIndex(int row, int col) {return (row - 1) * 8 + (col - 1);}
+
+    static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * TYPES.length + type.ordinal();
+    }
+
+    static ChessGame.TeamColor colorOf(int pieceIndex) {return COLORS[pieceIndex / TYPES.length];}
+
+    long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {return pieces[pieceIndex(color, type)];}
+    long occupancy(ChessGame.TeamColor color) {return colorOccupancy[color.ordinal()];}
+    long occupancy() {return occupied;}
+    long key() {return key;}
+
+    /** Square of the {@code color} king, or -1 if that side has no king on the board. */
+    int kingSquare(ChessGame.TeamColor color) {
+        long kings = pieces[pieceIndex(color, ChessPiece.PieceType.KING)];
+        return kings == 0 ? -1 : Long.numberOfTrailingZeros(kings);
+    }
+
+    int pieceIndexAt(int square) {
+        long mask = 1L << square;
+        if ((occupied & mask) == 0) {return -1;}
+        int first = (colorOccupancy[0] & mask) != 0 ? 0 : TYPES.length;
+        for (int i = first; i < first + TYPES.length; i++) {
+            if ((pieces[i] & mask) != 0) {return i;}
+        }
+        return -1;
+    }
+
+    void setSquare(int square, int pieceIndex) {
+        long mask = 1L << square;
+        pieces[pieceIndex] |= mask;
+        colorOccupancy[pieceIndex / TYPES.length] |= mask;
+        occupied |= mask;
+        key ^= Zobrist.pieceSquare(pieceIndex, square);
+    }
+
+    void clearSquare(int square) {
+        int index = pieceIndexAt(square);
+        if (index >= 0) {clearSquare(square, index);}
+    }
+
+    void clearSquare(int square, int pieceIndex) {
+        long mask = ~(1L << square);
+        pieces[pieceIndex] &= mask;
+        colorOccupancy[pieceIndex / TYPES.length] &= mask;
+        occupied &= mask;
+        key ^= Zobrist.pieceSquare(pieceIndex, square);
     }
 
     @Override
@@ -75,9 +153,9 @@ public class ChessBoard {
         if (this == o) {return true;}
         if (o == null || getClass() != o.getClass()) {return false;}
         ChessBoard that = (ChessBoard) o;
-        return Arrays.deepEquals(this.board, that.board);
+        return key == that.key && Arrays.equals(this.pieces, that.pieces);
     }
 
     @Override
-    public int hashCode() {return Arrays.deepHashCode(board);}
-}
\ No newline at end of file
+    public int hashCode() {return Long.hashCode(key);}
+}
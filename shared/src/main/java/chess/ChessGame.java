@@ -1,14 +1,18 @@
 package chess;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.List;
 import java.util.Objects;
 
 public class ChessGame {
 
     private TeamColor currentColor;
     private ChessBoard board;
+    private transient long[] undoStack = new long[32];
+    private transient int undoCount;
+    private final transient int[] moveBuffer = new int[MoveGenerator.MAX_PIECE_MOVES];
+    private transient int ply;
 
     public ChessGame() {
         this.currentColor = TeamColor.WHITE;
@@ -16,6 +20,16 @@ public class ChessGame {
         board.resetBoard();
     }
 
+    /**
+     * Copies the position, turn, ply and game-over flag. The copy has no moves to unmake.
+     */
+    public ChessGame(ChessGame other) {
+        this.currentColor = other.currentColor;
+        this.board = new ChessBoard(other.board);
+        this.ply = other.ply;
+        this.gameOver = other.gameOver;
+    }
+
     public TeamColor getTeamTurn() {return currentColor;}
     public void setTeamTurn(TeamColor team) {this.currentColor = team;}
 
@@ -27,130 +41,166 @@ public class ChessGame {
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
         ChessPiece piece = board.getPiece(startPosition);
         if (piece == null) {return new ArrayList<>();}
-        Collection<ChessMove> possibleMoves = piece.pieceMoves(board, startPosition);
-        Collection<ChessMove> validMoves = new ArrayList<>();
-        for (ChessMove move : possibleMoves) {
-            if (isValidMove(move)) {validMoves.add(move);}
+        int count = MoveGenerator.generate(board, startPosition, moveBuffer);
+        Collection<ChessMove> validMoves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (isLegal(moveBuffer[i], piece.getTeamColor())) {validMoves.add(PackedMove.toChessMove(moveBuffer[i]));}
         } return validMoves;
     }
 
 
-    private boolean isValidMove(ChessMove move) {
-        ChessPiece piece = board.getPiece(move.getStartPosition());
-        if (piece == null) {return false;}
+    private boolean isValidMove(int move) {
+        int index = board.pieceIndexAt(PackedMove.from(move));
+        if (index < 0) {return false;}
         // Check if the move is in the list of possible moves for the piece
-        Collection<ChessMove> possibleMoves = piece.pieceMoves(board, move.getStartPosition());
-        if (!possibleMoves.contains(move)) {return false;}
-        // Temporarily make the move
-        ChessPiece capturedPiece = board.getPiece(move.getEndPosition());
-        board.addPiece(move.getEndPosition(), piece);
-        board.addPiece(move.getStartPosition(), null);
+        int count = MoveGenerator.generate(board, ChessBoard.colorOf(index),
+                1L << PackedMove.from(move), 1L << PackedMove.to(move), moveBuffer, 0);
+        for (int i = 0; i < count; i++) {
+            if (moveBuffer[i] == move) {return isLegal(move, ChessBoard.colorOf(index));}
+        } return false;
+    }
+
+    private boolean isLegal(int move, TeamColor color) {
+        doMove(move);
         // Check if the move leaves the piece's team in check
-        boolean valid = !isInCheck(piece.getTeamColor());
-        // Undo the move
-        board.addPiece(move.getStartPosition(), piece);
-        board.addPiece(move.getEndPosition(), capturedPiece);
-        return valid;
+        boolean legal = !isInCheck(color);
+        undoMove();
+        return legal;
     }
 
 
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        ChessPiece movingPiece = board.getPiece(move.getStartPosition());
+        int packed = pack(move);
+        ChessPiece movingPiece = packed < 0 ? null : board.getPiece(move.getStartPosition());
         if (movingPiece == null || movingPiece.getTeamColor() != currentColor) {
             throw new InvalidMoveException("No piece at start position or wrong color");
         }
-        if (!isValidMove(move)) {throw new InvalidMoveException("Invalid move");}
-        // Perform the move
-        ChessPiece capturedPiece = board.getPiece(move.getEndPosition());
-        board.addPiece(move.getEndPosition(), movingPiece);
-        board.addPiece(move.getStartPosition(), null);
-        // Handle pawn promotion
-        if (move.getPromotionPiece() != null) {
-            board.addPiece(move.getEndPosition(), new ChessPiece(currentColor, move.getPromotionPiece()));
+        if (!isValidMove(packed)) {throw new InvalidMoveException("Invalid move");}
+        doMove(packed);
+        ply++;
+    }
+
+    /**
+     * Reverts the most recent move made with {@link #makeMove}, restoring the board and turn.
+     */
+    public void unmakeMove() {
+        if (undoCount == 0) {throw new IllegalStateException("No move to unmake");}
+        undoMove();
+        ply--;
+    }
+
+    /**
+     * Moves made in the game so far. A game loaded from storage starts from the ply its
+     * saved state covers, so storage can tell which logged moves a state already includes.
+     */
+    public int getPly() {return ply;}
+    public void setPly(int ply) {this.ply = ply;}
+
+    /*
+     * Undo records are packed into a long: bits 0-14 hold the move, 15-18 the moving
+     * piece index, 19-22 the captured piece index plus one (0 for none) and bit 23 the
+     * side that was to move. The rules engine has no castling or en passant, so there
+     * is no further state to restore.
+     */
+    void doMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int moved = board.pieceIndexAt(from);
+        int captured = board.pieceIndexAt(to);
+        TeamColor color = ChessBoard.colorOf(moved);
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+
+        if (undoCount == undoStack.length) {undoStack = Arrays.copyOf(undoStack, undoCount * 2);}
+        undoStack[undoCount++] = move | ((long) moved << 15) | ((long) (captured + 1) << 19)
+                | ((long) currentColor.ordinal() << 23);
+
+        board.clearSquare(from, moved);
+        if (captured >= 0) {board.clearSquare(to, captured);}
+        board.setSquare(to, promotion == null ? moved : ChessBoard.pieceIndex(color, promotion));
+        currentColor = (color == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+    }
+
+    void undoMove() {
+        long record = undoStack[--undoCount];
+        int move = (int) (record & 0x7FFF);
+        int to = PackedMove.to(move);
+        int moved = (int) ((record >>> 15) & 0xF);
+        int captured = (int) ((record >>> 19) & 0xF) - 1;
+
+        board.clearSquare(to);
+        board.setSquare(PackedMove.from(move), moved);
+        if (captured >= 0) {board.setSquare(to, captured);}
+        currentColor = TeamColor.values()[(int) ((record >>> 23) & 1)];
+    }
+
+    private static int pack(ChessMove move) {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        if (start == null || end == null) {return -1;}
+        if (start.getRow() < 1 || start.getRow() > 8 || start.getColumn() < 1 || start.getColumn() > 8
+                || end.getRow() < 1 || end.getRow() > 8 || end.getColumn() < 1 || end.getColumn() > 8) {
+            return -1;
         }
-        // Check if the move leaves the current player in check
-        if (isInCheck(currentColor)) {
-            // Undo the move
-            board.addPiece(move.getStartPosition(), movingPiece);
-            board.addPiece(move.getEndPosition(), capturedPiece);
-            throw new InvalidMoveException("Move leaves king in check");
-        }
-        // Switch turns
-        currentColor = (currentColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        return PackedMove.of(move);
     }
 
 
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition kingPosition = findKing(teamColor);
-        return isPositionUnderAttack(kingPosition, teamColor);
+        int kingSquare = board.kingSquare(teamColor);
+        if (kingSquare < 0) {return false;}
+        TeamColor attackingTeam = (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        return MoveGenerator.isSquareAttacked(board, kingSquare, attackingTeam);
     }
 
 
     public boolean isInCheckmate(TeamColor teamColor) {
         if (!isInCheck(teamColor)) { return false; }
-        return !legalMoves(teamColor);
+        return !hasLegalMove(teamColor);
     }
 
 
     public boolean isInStalemate(TeamColor teamColor) {
         if (isInCheck(teamColor)) { return false; }
-        return !legalMoves(teamColor);
-    }
-
-    public void setBoard(ChessBoard board) {this.board = board;}
-    public ChessBoard getBoard() {return this.board;}
-
-    private ChessPosition findKing(TeamColor teamColor) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-                if (piece != null && piece.getPieceType() == ChessPiece.PieceType.KING && piece.getTeamColor() == teamColor) {
-                    return position;
-                }
-            }
-        } return null;
+        return !hasLegalMove(teamColor);
     }
 
-    private boolean isPositionUnderAttack(ChessPosition targetPosition, TeamColor defendingTeam) {
-        TeamColor attackingTeam = (defendingTeam == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
-        // Get all positions with pieces of the attacking team
-        List<ChessPosition> attackingPiecePositions = findPiecesOfTeam(attackingTeam);
-        // Check if any attacking piece can attack the target position
-        for (ChessPosition piecePosition : attackingPiecePositions) {
-            if (canPieceAttackTarget(piecePosition, targetPosition)) {return true;}
-        } return false;
+    /**
+     * 64-bit Zobrist key of the position: piece placement and side to move. Maintained
+     * incrementally, so this is O(1) and suitable as a cache or deduplication key.
+     */
+    public long positionKey() {
+        return currentColor == TeamColor.BLACK ? board.key() ^ Zobrist.BLACK_TO_MOVE : board.key();
     }
 
-
-    private List<ChessPosition> findPiecesOfTeam(TeamColor team) {
-        List<ChessPosition> positions = new ArrayList<>();
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-                if (piece != null && piece.getTeamColor() == team) {positions.add(position);}
-            }
-        } return positions;
-    }
-
-    private boolean canPieceAttackTarget(ChessPosition piecePosition, ChessPosition targetPosition) {
-        ChessPiece piece = board.getPiece(piecePosition);
-        Collection<ChessMove> moves = piece.pieceMoves(board, piecePosition);
-        for (ChessMove move : moves) {
-            if (move.getEndPosition().equals(targetPosition)) {return true;}
-        } return false;
+    public void setBoard(ChessBoard board) {
+        this.board = board;
+        this.undoCount = 0;
     }
+    public ChessBoard getBoard() {return this.board;}
 
-    private boolean legalMoves(TeamColor teamColor) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-                if (piece != null && piece.getTeamColor() == teamColor) {
-                    Collection<ChessMove> moves = validMoves(position);
-                    if (!moves.isEmpty()) {return true;}
-                }
+    /*
+     * Stops at the first legal move. King moves are tried first since they are the only
+     * answer to a double check, then captures of a single checking piece, then the rest.
+     * Candidates are generated one piece at a time into the shared move buffer.
+     */
+    private boolean hasLegalMove(TeamColor teamColor) {
+        int kingSquare = board.kingSquare(teamColor);
+        long king = kingSquare < 0 ? 0L : 1L << kingSquare;
+        if (hasLegalMove(teamColor, king, -1L)) {return true;}
+
+        TeamColor attackingTeam = (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        long checkers = kingSquare < 0 ? 0L : MoveGenerator.attackersOf(board, kingSquare, attackingTeam);
+        long others = board.occupancy(teamColor) & ~king;
+        if (checkers == 0) {return hasLegalMove(teamColor, others, -1L);}
+        if (Long.bitCount(checkers) > 1) {return false;}
+        return hasLegalMove(teamColor, others, checkers) || hasLegalMove(teamColor, others, ~checkers);
+    }
+
+    private boolean hasLegalMove(TeamColor teamColor, long fromMask, long toMask) {
+        for (long pieces = fromMask; pieces != 0; pieces &= pieces - 1) {
+            int count = MoveGenerator.generate(board, teamColor, Long.lowestOneBit(pieces), toMask, moveBuffer, 0);
+            for (int i = 0; i < count; i++) {
+                if (isLegal(moveBuffer[i], teamColor)) {return true;}
             }
         } return false;
     }
@@ -174,5 +224,5 @@ public class ChessGame {
     }
 
     @Override
-    public int hashCode() {return Objects.hash(currentColor, board);}
+    public int hashCode() {return Long.hashCode(positionKey());}
 }
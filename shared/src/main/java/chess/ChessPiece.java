@@ -4,6 +4,16 @@ import java.util.Collection;
 import java.util.Objects;
 
 public class ChessPiece {
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[color.ordinal() * 6 + type.ordinal()] = new ChessPiece(color, type);
+            }
+        }
+    }
+
     private final ChessGame.TeamColor pieceColor;
     private final PieceType pieceType;
 
@@ -12,6 +22,13 @@ public class ChessPiece {
         this.pieceType = type;
     }
 
+    /**
+     * Shared instance for the given color and type.
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
+        return PIECES[pieceColor.ordinal() * 6 + type.ordinal()];
+    }
+
     public enum PieceType {
         KING,
         QUEEN,
@@ -4,6 +4,16 @@ import java.util.Objects;
 
 public class ChessPosition {
 
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+
+    static {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                POSITIONS[(row - 1) * 8 + (col - 1)] = new ChessPosition(row, col);
+            }
+        }
+    }
+
     private final int row;
     private final int col;
 
@@ -12,6 +22,14 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * Shared instance for an on-board square; off-board coordinates get a fresh instance.
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {return new ChessPosition(row, col);}
+        return POSITIONS[(row - 1) * 8 + (col - 1)];
+    }
+
     public int getRow() {return row;}
     public int getColumn() {return col;}
 
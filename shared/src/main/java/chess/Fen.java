@@ -0,0 +1,81 @@
+package chess;
+
+import java.util.Map;
+
+/**
+ * Reads positions in Forsyth-Edwards Notation. Only the piece placement and side-to-move
+ * fields are used; castling, en passant and move clocks are accepted but ignored since
+ * the rules engine does not track them. The piece placement field alone is also the
+ * board's JSON form.
+ */
+public final class Fen {
+
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    private static final Map<Character, ChessPiece.PieceType> CHAR_TO_TYPE = Map.of(
+            'p', ChessPiece.PieceType.PAWN,
+            'n', ChessPiece.PieceType.KNIGHT,
+            'b', ChessPiece.PieceType.BISHOP,
+            'r', ChessPiece.PieceType.ROOK,
+            'q', ChessPiece.PieceType.QUEEN,
+            'k', ChessPiece.PieceType.KING);
+
+    // Indexed by ChessBoard.pieceIndex: white pieces in PieceType order, then black
+    private static final String PIECE_CHARS = "KQBNRPkqbnrp";
+
+    private Fen() {
+    }
+
+    public static ChessGame parse(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        ChessGame game = new ChessGame();
+        game.setBoard(parsePlacement(fields[0]));
+        game.setTeamTurn(fields.length > 1 && fields[1].equals("b") ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        return game;
+    }
+
+    /** Reads the piece placement field alone, e.g. {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR}. */
+    public static ChessBoard parsePlacement(String placement) {
+        ChessBoard board = new ChessBoard();
+        int row = 8;
+        int col = 1;
+        for (int i = 0; i < placement.length(); i++) {
+            char c = placement.charAt(i);
+            if (c == '/') {
+                row--;
+                col = 1;
+            } else if (Character.isDigit(c)) {
+                col += c - '0';
+            } else {
+                ChessPiece.PieceType type = CHAR_TO_TYPE.get(Character.toLowerCase(c));
+                if (type == null || row < 1 || col > 8) {throw new IllegalArgumentException("Invalid FEN: " + placement);}
+                ChessGame.TeamColor color = Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                board.addPiece(ChessPosition.of(row, col++), ChessPiece.of(color, type));
+            }
+        }
+        return board;
+    }
+
+    /** Writes the piece placement field, rank 8 first. */
+    public static String placement(ChessBoard board) {
+        StringBuilder out = new StringBuilder(71);
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                int index = board.pieceIndexAt(ChessBoard.squareIndex(row, col));
+                if (index < 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    out.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                out.append(PIECE_CHARS.charAt(index));
+            }
+            if (empty > 0) {out.append((char) ('0' + empty));}
+            if (row > 1) {out.append('/');}
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,239 @@
+package chess;
+
+/**
+ * Pseudo-legal move generation over the {@link ChessBoard} bitboards. Knight, king
+ * and pawn attacks come from precomputed tables and sliding pieces walk precomputed
+ * rays up to the first blocker. Moves are written as {@link PackedMove} ints into a
+ * caller-provided buffer, so generation allocates nothing.
+ * <p>
+ * This is the allocation-free counterpart of {@link MovementRule}: it produces the
+ * same moves as {@link ChessPiece#pieceMoves} for every piece.
+ */
+public final class MoveGenerator {
+
+    /** Buffer size that holds every pseudo-legal move of one side in a legal position. */
+    public static final int MAX_MOVES = 256;
+    /** Buffer size that holds every pseudo-legal move of a single piece. */
+    public static final int MAX_PIECE_MOVES = 28;
+
+    private static final ChessGame.TeamColor WHITE = ChessGame.TeamColor.WHITE;
+    private static final ChessGame.TeamColor BLACK = ChessGame.TeamColor.BLACK;
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT};
+
+    private static final long RANK_1 = 0xFFL;
+    private static final long RANK_8 = 0xFFL << 56;
+
+    // Ray directions; the first four walk towards higher square indexes.
+    private static final int[][] DIRECTIONS = {
+            {1, 0}, {0, 1}, {1, 1}, {1, -1},
+            {-1, 0}, {0, -1}, {-1, -1}, {-1, 1}};
+    private static final int[] ROOK_DIRECTIONS = {0, 1, 4, 5};
+    private static final int[] BISHOP_DIRECTIONS = {2, 3, 6, 7};
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+    private static final long[][] RAYS = new long[8][64];
+
+    static {
+        int[][] knightOffsets = {{2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}};
+        for (int square = 0; square < 64; square++) {
+            int row = square / 8;
+            int col = square % 8;
+            for (int[] offset : knightOffsets) {
+                KNIGHT_ATTACKS[square] |= bit(row + offset[0], col + offset[1]);
+            }
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                int[] direction = DIRECTIONS[d];
+                KING_ATTACKS[square] |= bit(row + direction[0], col + direction[1]);
+                for (int r = row + direction[0], c = col + direction[1]; bit(r, c) != 0;
+                     r += direction[0], c += direction[1]) {
+                    RAYS[d][square] |= bit(r, c);
+                }
+            }
+            PAWN_ATTACKS[WHITE.ordinal()][square] = bit(row + 1, col - 1) | bit(row + 1, col + 1);
+            PAWN_ATTACKS[BLACK.ordinal()][square] = bit(row - 1, col - 1) | bit(row - 1, col + 1);
+        }
+    }
+
+    private MoveGenerator() {
+    }
+
+    private static long bit(int row, int col) {
+        return row >= 0 && row < 8 && col >= 0 && col < 8 ? 1L << (row * 8 + col) : 0L;
+    }
+
+    public static long knightAttacks(int square) {return KNIGHT_ATTACKS[square];}
+    public static long kingAttacks(int square) {return KING_ATTACKS[square];}
+
+    /** Squares a pawn of {@code color} standing on {@code square} attacks. */
+    public static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return slidingAttacks(square, occupied, BISHOP_DIRECTIONS);
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return slidingAttacks(square, occupied, ROOK_DIRECTIONS);
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return bishopAttacks(square, occupied) | rookAttacks(square, occupied);
+    }
+
+    private static long slidingAttacks(int square, long occupied, int[] directions) {
+        long attacks = 0L;
+        for (int d : directions) {
+            long ray = RAYS[d][square];
+            long blockers = ray & occupied;
+            if (blockers != 0) {
+                int blocker = d < 4 ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+                ray ^= RAYS[d][blocker];
+            }
+            attacks |= ray;
+        }
+        return attacks;
+    }
+
+    /**
+     * Bitboard of the {@code attacker} pieces that attack {@code square}. Works in reverse
+     * from the target: a knight attacks the square exactly when the square attacks the
+     * knight with a knight's jump, and likewise for every other piece type.
+     */
+    public static long attackersOf(ChessBoard board, int square, ChessGame.TeamColor attacker) {
+        long occupied = board.occupancy();
+        long queens = board.pieces(attacker, ChessPiece.PieceType.QUEEN);
+        ChessGame.TeamColor defender = attacker == WHITE ? BLACK : WHITE;
+        return (KNIGHT_ATTACKS[square] & board.pieces(attacker, ChessPiece.PieceType.KNIGHT))
+                | (KING_ATTACKS[square] & board.pieces(attacker, ChessPiece.PieceType.KING))
+                | (PAWN_ATTACKS[defender.ordinal()][square] & board.pieces(attacker, ChessPiece.PieceType.PAWN))
+                | (bishopAttacks(square, occupied) & (board.pieces(attacker, ChessPiece.PieceType.BISHOP) | queens))
+                | (rookAttacks(square, occupied) & (board.pieces(attacker, ChessPiece.PieceType.ROOK) | queens));
+    }
+
+    /**
+     * Whether any {@code attacker} piece attacks {@code square}, checking the cheap
+     * leaper patterns before the sliding rays.
+     */
+    public static boolean isSquareAttacked(ChessBoard board, int square, ChessGame.TeamColor attacker) {
+        ChessGame.TeamColor defender = attacker == WHITE ? BLACK : WHITE;
+        if ((KNIGHT_ATTACKS[square] & board.pieces(attacker, ChessPiece.PieceType.KNIGHT)) != 0
+                || (PAWN_ATTACKS[defender.ordinal()][square] & board.pieces(attacker, ChessPiece.PieceType.PAWN)) != 0
+                || (KING_ATTACKS[square] & board.pieces(attacker, ChessPiece.PieceType.KING)) != 0) {
+            return true;
+        }
+        long occupied = board.occupancy();
+        long queens = board.pieces(attacker, ChessPiece.PieceType.QUEEN);
+        long diagonal = board.pieces(attacker, ChessPiece.PieceType.BISHOP) | queens;
+        if (diagonal != 0 && (bishopAttacks(square, occupied) & diagonal) != 0) {return true;}
+        long straight = board.pieces(attacker, ChessPiece.PieceType.ROOK) | queens;
+        return straight != 0 && (rookAttacks(square, occupied) & straight) != 0;
+    }
+
+    /**
+     * Writes every pseudo-legal move for {@code color} into {@code buffer} and returns the count.
+     */
+    public static int generate(ChessBoard board, ChessGame.TeamColor color, int[] buffer) {
+        return generate(board, color, -1L, -1L, buffer, 0);
+    }
+
+    /**
+     * Writes the pseudo-legal moves of the piece on {@code position} into {@code buffer}
+     * and returns the count, or 0 if the square is empty.
+     */
+    public static int generate(ChessBoard board, ChessPosition position, int[] buffer) {
+        int square = ChessBoard.squareIndex(position.getRow(), position.getColumn());
+        int index = board.pieceIndexAt(square);
+        if (index < 0) {return 0;}
+        return generate(board, ChessBoard.colorOf(index), 1L << square, -1L, buffer, 0);
+    }
+
+    /**
+     * Writes the pseudo-legal moves of the {@code color} pieces standing on {@code fromMask}
+     * that land on {@code toMask} into {@code buffer} starting at {@code offset}, and returns
+     * the offset just past the last move written.
+     */
+    public static int generate(ChessBoard board, ChessGame.TeamColor color, long fromMask, long toMask,
+                               int[] buffer, int offset) {
+        long own = board.occupancy(color);
+        long occupied = board.occupancy();
+        long targets = ~own & toMask;
+        int count = offset;
+
+        count = pawnMoves(board, color, fromMask, toMask, buffer, count);
+        for (long knights = board.pieces(color, ChessPiece.PieceType.KNIGHT) & fromMask; knights != 0;
+             knights &= knights - 1) {
+            int from = Long.numberOfTrailingZeros(knights);
+            count = writeMoves(from, KNIGHT_ATTACKS[from] & targets, buffer, count);
+        }
+        for (long bishops = board.pieces(color, ChessPiece.PieceType.BISHOP) & fromMask; bishops != 0;
+             bishops &= bishops - 1) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            count = writeMoves(from, bishopAttacks(from, occupied) & targets, buffer, count);
+        }
+        for (long rooks = board.pieces(color, ChessPiece.PieceType.ROOK) & fromMask; rooks != 0;
+             rooks &= rooks - 1) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            count = writeMoves(from, rookAttacks(from, occupied) & targets, buffer, count);
+        }
+        for (long queens = board.pieces(color, ChessPiece.PieceType.QUEEN) & fromMask; queens != 0;
+             queens &= queens - 1) {
+            int from = Long.numberOfTrailingZeros(queens);
+            count = writeMoves(from, queenAttacks(from, occupied) & targets, buffer, count);
+        }
+        for (long kings = board.pieces(color, ChessPiece.PieceType.KING) & fromMask; kings != 0;
+             kings &= kings - 1) {
+            int from = Long.numberOfTrailingZeros(kings);
+            count = writeMoves(from, KING_ATTACKS[from] & targets, buffer, count);
+        }
+        return count;
+    }
+
+    private static int pawnMoves(ChessBoard board, ChessGame.TeamColor color, long fromMask, long toMask,
+                                 int[] buffer, int count) {
+        long empty = ~board.occupancy();
+        long enemies = board.occupancy(color == WHITE ? BLACK : WHITE);
+        boolean white = color == WHITE;
+        int forward = white ? 8 : -8;
+        int startRank = white ? 1 : 6;
+
+        for (long pawns = board.pieces(color, ChessPiece.PieceType.PAWN) & fromMask; pawns != 0;
+             pawns &= pawns - 1) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            int oneAhead = from + forward;
+            if (oneAhead < 0 || oneAhead > 63) {continue;}
+            long pushes = 0L;
+            if ((empty & (1L << oneAhead)) != 0) {
+                pushes = 1L << oneAhead;
+                int twoAhead = oneAhead + forward;
+                if (from / 8 == startRank && (empty & (1L << twoAhead)) != 0) {
+                    pushes |= 1L << twoAhead;
+                }
+            }
+            long captures = PAWN_ATTACKS[color.ordinal()][from] & enemies;
+            long targets = (pushes | captures) & toMask;
+            for (; targets != 0; targets &= targets - 1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                if (((1L << to) & (RANK_1 | RANK_8)) != 0) {
+                    for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                        buffer[count++] = PackedMove.of(from, to, promotion);
+                    }
+                } else {
+                    buffer[count++] = PackedMove.of(from, to);
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int writeMoves(int from, long targets, int[] buffer, int count) {
+        for (; targets != 0; targets &= targets - 1) {
+            buffer[count++] = PackedMove.of(from, Long.numberOfTrailingZeros(targets));
+        }
+        return count;
+    }
+}
@@ -0,0 +1,41 @@
+package chess;
+
+/**
+ * Encodes a move as a single {@code int}: bits 0-5 hold the start square, bits 6-11
+ * the end square and bits 12-14 the promotion piece (0 for none, otherwise
+ * {@code PieceType.ordinal() + 1}). Squares use the {@link ChessBoard} bit layout.
+ */
+public final class PackedMove {
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+    }
+
+    public static int of(int from, int to) {return from | (to << 6);}
+
+    public static int of(int from, int to, ChessPiece.PieceType promotion) {
+        return promotion == null ? of(from, to) : of(from, to) | ((promotion.ordinal() + 1) << 12);
+    }
+
+    public static int of(ChessMove move) {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        return of(ChessBoard.squareIndex(start.getRow(), start.getColumn()),
+                ChessBoard.squareIndex(end.getRow(), end.getColumn()), move.getPromotionPiece());
+    }
+
+    public static int from(int move) {return move & 0x3F;}
+    public static int to(int move) {return (move >>> 6) & 0x3F;}
+
+    public static ChessPiece.PieceType promotion(int move) {
+        int code = (move >>> 12) & 0x7;
+        return code == 0 ? null : TYPES[code - 1];
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(position(from(move)), position(to(move)), promotion(move));
+    }
+
+    static ChessPosition position(int square) {return ChessPosition.of(square / 8 + 1, square % 8 + 1);}
+}
@@ -26,7 +26,7 @@ public class PawnRule extends BaseMovementRule {
 
 // 1) One‐square forward
         int forwardRow = row + direction;
-        ChessPosition forwardPos = new ChessPosition(forwardRow, col);
+        ChessPosition forwardPos = ChessPosition.of(forwardRow, col);
         boolean blockedForward = !board.isValidSquare(forwardRow, col)
                 || board.isOccupiedByOwnPiece(forwardRow, col, position)
                 || board.isOccupiedByOpponent(forwardRow, col, position);
@@ -45,7 +45,7 @@ public class PawnRule extends BaseMovementRule {
 // 2) Two‐square forward on first move (both squares must be empty)
                 if (row == startRow) {
                     int twoAhead = row + 2 * direction;
-                    ChessPosition twoPos = new ChessPosition(twoAhead, col);
+                    ChessPosition twoPos = ChessPosition.of(twoAhead, col);
                     boolean blockedTwoAhead = !board.isValidSquare(twoAhead, col)
                             || board.isOccupiedByOwnPiece(twoAhead, col, position)
                             || board.isOccupiedByOpponent(twoAhead, col, position)
@@ -63,7 +63,7 @@ public class PawnRule extends BaseMovementRule {
             if (board.isValidSquare(captureRow, captureCol)
                     && board.isOccupiedByOpponent(captureRow, captureCol, position)) {
 
-                ChessPosition capturePos = new ChessPosition(captureRow, captureCol);
+                ChessPosition capturePos = ChessPosition.of(captureRow, captureCol);
                 if (captureRow == promotionRow) {
                     for (ChessPiece.PieceType promoType : new ChessPiece.PieceType[]{
                             ChessPiece.PieceType.QUEEN,
@@ -0,0 +1,91 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth. Node counts for
+ * well-known positions are published, which makes this the standard correctness
+ * check and throughput benchmark for a move generator.
+ * <p>
+ * Run {@code Perft <depth> [fen]} to print a divide (per-root-move counts) followed
+ * by the total and nodes per second.
+ */
+public final class Perft {
+
+    private final ChessGame game;
+    private final int[][] buffers;
+
+    public Perft(ChessGame game, int maxDepth) {
+        this.game = game;
+        this.buffers = new int[Math.max(maxDepth, 1)][MoveGenerator.MAX_MOVES];
+    }
+
+    public long perft(int depth) {
+        return depth <= 0 ? 1 : count(depth, 0);
+    }
+
+    /**
+     * Node counts below each legal root move, keyed by the move in coordinate notation (e.g. e2e4).
+     */
+    public Map<String, Long> divide(int depth) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        if (depth <= 0) {return result;}
+        ChessGame.TeamColor color = game.getTeamTurn();
+        int[] moves = buffers[0];
+        int count = MoveGenerator.generate(game.getBoard(), color, moves);
+        for (int i = 0; i < count; i++) {
+            game.doMove(moves[i]);
+            if (!game.isInCheck(color)) {result.put(notation(moves[i]), depth == 1 ? 1 : count(depth - 1, 1));}
+            game.undoMove();
+        }
+        return result;
+    }
+
+    private long count(int depth, int ply) {
+        ChessGame.TeamColor color = game.getTeamTurn();
+        int[] moves = buffers[ply];
+        int count = MoveGenerator.generate(game.getBoard(), color, moves);
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            game.doMove(moves[i]);
+            if (!game.isInCheck(color)) {nodes += depth == 1 ? 1 : count(depth - 1, ply + 1);}
+            game.undoMove();
+        }
+        return nodes;
+    }
+
+    static String notation(int move) {
+        String text = square(PackedMove.from(move)) + square(PackedMove.to(move));
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        if (promotion == null) {return text;}
+        return text + (promotion == ChessPiece.PieceType.KNIGHT ? 'n' : Character.toLowerCase(promotion.name().charAt(0)));
+    }
+
+    private static String square(int square) {
+        return "" + (char) ('a' + square % 8) + (square / 8 + 1);
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        String fen = args.length > 1 ? String.join(" ", Arrays.copyOfRange(args, 1, args.length))
+                : Fen.START_POSITION;
+        Perft perft = new Perft(Fen.parse(fen), depth);
+
+        long start = System.nanoTime();
+        Map<String, Long> divide = perft.divide(depth);
+        long elapsed = System.nanoTime() - start;
+
+        long total = 0;
+        for (Map.Entry<String, Long> entry : divide.entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            total += entry.getValue();
+        }
+        System.out.println();
+        System.out.println("Moves: " + divide.size());
+        System.out.println("Nodes: " + total);
+        System.out.printf("Time: %.3f s%n", elapsed / 1e9);
+        System.out.printf("NPS: %.0f%n", total / Math.max(elapsed / 1e9, 1e-9));
+    }
+}
@@ -0,0 +1,38 @@
+package chess;
+
+/**
+ * Zobrist keys for hashing positions. A position's key is the XOR of one random key per
+ * (piece, square) pair on the board, plus {@link #BLACK_TO_MOVE} when black is to move,
+ * so it can be updated incrementally as pieces come and go.
+ * <p>
+ * The keys come from a fixed-seed splitmix64 sequence so every JVM (server and client)
+ * computes the same key for the same position.
+ */
+final class Zobrist {
+
+    static final long BLACK_TO_MOVE;
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+
+    static {
+        long state = 0x3C6EF372FE94F82AL;
+        for (long[] squares : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                state += 0x9E3779B97F4A7C15L;
+                squares[square] = mix(state);
+            }
+        }
+        state += 0x9E3779B97F4A7C15L;
+        BLACK_TO_MOVE = mix(state);
+    }
+
+    private Zobrist() {
+    }
+
+    static long pieceSquare(int pieceIndex, int square) {return PIECE_SQUARE[pieceIndex][square];}
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -2,5 +2,8 @@ package model;
 
 import java.util.Collection;
 
-public record ListGamesResult(Collection<GameData> games) {
+/**
+ * @param nextCursor pass back as {@code cursor} to get the following page; null on the last page
+ */
+public record ListGamesResult(Collection<GameData> games, Integer nextCursor) {
 }
@@ -0,0 +1,211 @@
+package serialization;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.PackedMove;
+import model.GameData;
+import websocket.commands.UserGameCommand;
+import websocket.messages.ServerMessage;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary framing for WebSocket clients that offer the {@link #SUBPROTOCOL} subprotocol
+ * on connect. Integers are big-endian; a string is a signed 16-bit byte length (-1 for
+ * null) followed by UTF-8; a move is its {@link PackedMove} code in 16 bits.
+ * <p>
+ * A command is its type ordinal, a flags byte (bit 0 has game ID, bit 1 has move, bit 2
+ * move deltas), the game ID and move when present, then the auth token.
+ * <p>
+ * A server message is its type ordinal followed by a body for that type:
+ * <ul>
+ * <li>LOAD_GAME: a flags byte (bit 0 has game data, bit 1 has game), then game ID,
+ * white, black and game name, then the {@link GameStateCodec} bytes of the game</li>
+ * <li>MOVE_MADE: the move, a flags byte (bit 0 black to move, bit 1 check, bit 2
+ * checkmate, bit 3 has position key) and the 64-bit position key when present</li>
+ * <li>ERROR and NOTIFICATION: the message text</li>
+ * </ul>
+ */
+public final class BinaryMessageCodec {
+
+    public static final String SUBPROTOCOL = "chess.binary.v1";
+
+    private static final int HAS_GAME_ID = 1;
+    private static final int HAS_MOVE = 1 << 1;
+    private static final int MOVE_DELTAS = 1 << 2;
+
+    private static final int HAS_GAME_DATA = 1;
+    private static final int HAS_GAME = 1 << 1;
+
+    private static final int BLACK_TO_MOVE = 1;
+    private static final int CHECK = 1 << 1;
+    private static final int CHECKMATE = 1 << 2;
+    private static final int HAS_POSITION_KEY = 1 << 3;
+
+    private static final int PROMOTION_TYPES = ChessPiece.PieceType.values().length;
+    private static final UserGameCommand.CommandType[] COMMAND_TYPES = UserGameCommand.CommandType.values();
+    private static final ServerMessage.ServerMessageType[] MESSAGE_TYPES = ServerMessage.ServerMessageType.values();
+
+    private BinaryMessageCodec() {
+    }
+
+    public static byte[] encode(UserGameCommand command) {
+        byte[] token = utf8(command.getAuthToken());
+        int flags = 0;
+        if (command.getGameID() != null) {flags |= HAS_GAME_ID;}
+        if (command.getMove() != null) {flags |= HAS_MOVE;}
+        if (command.wantsMoveDeltas()) {flags |= MOVE_DELTAS;}
+
+        ByteBuffer out = ByteBuffer.allocate(2 + (command.getGameID() != null ? 4 : 0)
+                + (command.getMove() != null ? 2 : 0) + stringLength(token));
+        out.put((byte) command.getCommandType().ordinal());
+        out.put((byte) flags);
+        if (command.getGameID() != null) {out.putInt(command.getGameID());}
+        if (command.getMove() != null) {out.putShort((short) PackedMove.of(command.getMove()));}
+        putString(out, token);
+        return out.array();
+    }
+
+    public static UserGameCommand decodeCommand(byte[] bytes, int offset, int length) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes, offset, length);
+            UserGameCommand.CommandType type = COMMAND_TYPES[ordinal(in.get(), COMMAND_TYPES.length)];
+            int flags = in.get();
+            Integer gameID = (flags & HAS_GAME_ID) != 0 ? in.getInt() : null;
+            ChessMove move = (flags & HAS_MOVE) != 0 ? getMove(in) : null;
+            String authToken = getString(in);
+            if ((flags & MOVE_DELTAS) != 0 && type == UserGameCommand.CommandType.CONNECT) {
+                return UserGameCommand.connectWithMoveDeltas(authToken, gameID);
+            }
+            return new UserGameCommand(type, authToken, gameID, move);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated command");
+        }
+    }
+
+    public static byte[] encode(ServerMessage message) {
+        return switch (message.getServerMessageType()) {
+            case LOAD_GAME -> encodeLoadGame(message.getGame());
+            case MOVE_MADE -> encodeMoveMade(message);
+            case ERROR, NOTIFICATION -> {
+                byte[] text = utf8(message.getMessage());
+                ByteBuffer out = ByteBuffer.allocate(1 + stringLength(text));
+                out.put((byte) message.getServerMessageType().ordinal());
+                putString(out, text);
+                yield out.array();
+            }
+        };
+    }
+
+    public static ServerMessage decodeMessage(byte[] bytes, int offset, int length) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes, offset, length);
+            ServerMessage.ServerMessageType type = MESSAGE_TYPES[ordinal(in.get(), MESSAGE_TYPES.length)];
+            return switch (type) {
+                case LOAD_GAME -> new ServerMessage(decodeGameData(in));
+                case MOVE_MADE -> decodeMoveMade(in);
+                case ERROR, NOTIFICATION -> new ServerMessage(type, getString(in));
+            };
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated server message");
+        }
+    }
+
+    private static byte[] encodeLoadGame(GameData data) {
+        if (data == null) {return new byte[]{(byte) ServerMessage.ServerMessageType.LOAD_GAME.ordinal(), 0};}
+        byte[] white = utf8(data.whiteUsername());
+        byte[] black = utf8(data.blackUsername());
+        byte[] name = utf8(data.gameName());
+        int flags = HAS_GAME_DATA | (data.game() != null ? HAS_GAME : 0);
+
+        ByteBuffer out = ByteBuffer.allocate(2 + 4 + stringLength(white) + stringLength(black) + stringLength(name)
+                + (data.game() != null ? GameStateCodec.ENCODED_LENGTH : 0));
+        out.put((byte) ServerMessage.ServerMessageType.LOAD_GAME.ordinal());
+        out.put((byte) flags);
+        out.putInt(data.gameID());
+        putString(out, white);
+        putString(out, black);
+        putString(out, name);
+        if (data.game() != null) {out.put(GameStateCodec.encode(data.game()));}
+        return out.array();
+    }
+
+    private static GameData decodeGameData(ByteBuffer in) {
+        int flags = in.get();
+        if ((flags & HAS_GAME_DATA) == 0) {return null;}
+        int gameID = in.getInt();
+        String white = getString(in);
+        String black = getString(in);
+        String name = getString(in);
+        ChessGame game = null;
+        if ((flags & HAS_GAME) != 0) {
+            byte[] state = new byte[GameStateCodec.ENCODED_LENGTH];
+            in.get(state);
+            game = GameStateCodec.decode(state);
+        }
+        return new GameData(gameID, white, black, name, game);
+    }
+
+    private static byte[] encodeMoveMade(ServerMessage message) {
+        int flags = 0;
+        if (message.getTeamTurn() == ChessGame.TeamColor.BLACK) {flags |= BLACK_TO_MOVE;}
+        if (message.isCheck()) {flags |= CHECK;}
+        if (message.isCheckmate()) {flags |= CHECKMATE;}
+        if (message.getPositionKey() != null) {flags |= HAS_POSITION_KEY;}
+
+        ByteBuffer out = ByteBuffer.allocate(4 + (message.getPositionKey() != null ? 8 : 0));
+        out.put((byte) ServerMessage.ServerMessageType.MOVE_MADE.ordinal());
+        out.putShort((short) PackedMove.of(message.getMove()));
+        out.put((byte) flags);
+        if (message.getPositionKey() != null) {out.putLong(message.getPositionKey());}
+        return out.array();
+    }
+
+    private static ServerMessage decodeMoveMade(ByteBuffer in) {
+        ChessMove move = getMove(in);
+        int flags = in.get();
+        ChessGame.TeamColor teamTurn = (flags & BLACK_TO_MOVE) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        Long positionKey = (flags & HAS_POSITION_KEY) != 0 ? in.getLong() : null;
+        return new ServerMessage(move, teamTurn, (flags & CHECK) != 0, (flags & CHECKMATE) != 0, positionKey);
+    }
+
+    private static ChessMove getMove(ByteBuffer in) {
+        int packed = in.getShort() & 0x7FFF;
+        if ((packed >>> 12) > PROMOTION_TYPES) {throw new IllegalArgumentException("Invalid move " + packed);}
+        return PackedMove.toChessMove(packed);
+    }
+
+    private static int ordinal(byte value, int count) {
+        if (value < 0 || value >= count) {throw new IllegalArgumentException("Unknown message type " + value);}
+        return value;
+    }
+
+    private static byte[] utf8(String text) {
+        if (text == null) {return null;}
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {throw new IllegalArgumentException("String too long to encode");}
+        return bytes;
+    }
+
+    private static int stringLength(byte[] utf8) {return 2 + (utf8 == null ? 0 : utf8.length);}
+
+    private static void putString(ByteBuffer out, byte[] utf8) {
+        if (utf8 == null) {
+            out.putShort((short) -1);
+            return;
+        }
+        out.putShort((short) utf8.length);
+        out.put(utf8);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getShort();
+        if (length < 0) {return null;}
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
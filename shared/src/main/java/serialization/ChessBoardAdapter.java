@@ -0,0 +1,98 @@
+package serialization;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Fen;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes a board as its FEN piece placement string. Reading also accepts the two object
+ * shapes reflection used to produce: the original {@code "board"} array of
+ * {@code ChessPiece[8][8]} rows and the bitboard {@code "pieces"} array.
+ */
+class ChessBoardAdapter extends TypeAdapter<ChessBoard> {
+
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private final ChessPieceAdapter pieceAdapter = new ChessPieceAdapter();
+
+    @Override
+    public void write(JsonWriter out, ChessBoard board) throws IOException {
+        if (board == null) {
+            out.nullValue();
+            return;
+        }
+        out.value(Fen.placement(board));
+    }
+
+    @Override
+    public ChessBoard read(JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case NULL -> {
+                in.nextNull();
+                return null;
+            }
+            case STRING -> {
+                try {
+                    return Fen.parsePlacement(in.nextString());
+                } catch (IllegalArgumentException e) {
+                    throw new JsonParseException(e.getMessage(), e);
+                }
+            }
+            default -> {
+                return readLegacy(in);
+            }
+        }
+    }
+
+    private ChessBoard readLegacy(JsonReader in) throws IOException {
+        ChessBoard board = new ChessBoard();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "board" -> readSquares(in, board);
+                case "pieces" -> readBitboards(in, board);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return board;
+    }
+
+    private void readSquares(JsonReader in, ChessBoard board) throws IOException {
+        in.beginArray();
+        for (int row = 1; in.hasNext(); row++) {
+            in.beginArray();
+            for (int col = 1; in.hasNext(); col++) {
+                ChessPiece piece = pieceAdapter.read(in);
+                if (piece != null) {board.addPiece(ChessPosition.of(row, col), piece);}
+            }
+            in.endArray();
+        }
+        in.endArray();
+    }
+
+    // One long per color and piece type, white first, a1 in bit 0.
+    private void readBitboards(JsonReader in, ChessBoard board) throws IOException {
+        in.beginArray();
+        for (int index = 0; in.hasNext(); index++) {
+            long bits = in.nextLong();
+            if (bits == 0) {continue;}
+            if (index >= COLORS.length * TYPES.length) {throw new JsonParseException("Too many bitboards");}
+            ChessPiece piece = ChessPiece.of(COLORS[index / TYPES.length], TYPES[index % TYPES.length]);
+            for (; bits != 0; bits &= bits - 1) {
+                int square = Long.numberOfTrailingZeros(bits);
+                board.addPiece(ChessPosition.of(square / 8 + 1, square % 8 + 1), piece);
+            }
+        }
+        in.endArray();
+    }
+}
@@ -0,0 +1,57 @@
+package serialization;
+
+import chess.ChessGame;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes {@code {"currentColor":...,"board":...,"gameOver":...,"ply":...}}: the
+ * field names reflection produces, with the board in {@link ChessBoardAdapter}'s form,
+ * plus the ply, which reflection skips. JSON without a ply reads as ply 0.
+ */
+class ChessGameAdapter extends TypeAdapter<ChessGame> {
+
+    private final ChessBoardAdapter boardAdapter = new ChessBoardAdapter();
+
+    @Override
+    public void write(JsonWriter out, ChessGame game) throws IOException {
+        if (game == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("currentColor").value(JsonFields.name(game.getTeamTurn()));
+        out.name("board");
+        boardAdapter.write(out, game.getBoard());
+        out.name("gameOver").value(game.isGameOver());
+        out.name("ply").value(game.getPly());
+        out.endObject();
+    }
+
+    @Override
+    public ChessGame read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ChessGame game = new ChessGame();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "currentColor" -> game.setTeamTurn(JsonFields.readEnum(in, ChessGame.TeamColor.class));
+                case "board" -> game.setBoard(boardAdapter.read(in));
+                case "gameOver" -> {
+                    if (in.nextBoolean()) {game.gameOver();}
+                }
+                case "ply" -> game.setPly(in.nextInt());
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return game;
+    }
+}
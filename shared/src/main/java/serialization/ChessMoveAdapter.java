@@ -0,0 +1,57 @@
+package serialization;
+
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes {@code {"startPosition":...,"endPosition":...,"promotionPiece":...}},
+ * the same shape reflection produces.
+ */
+class ChessMoveAdapter extends TypeAdapter<ChessMove> {
+
+    private final ChessPositionAdapter positionAdapter = new ChessPositionAdapter();
+
+    @Override
+    public void write(JsonWriter out, ChessMove move) throws IOException {
+        if (move == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("startPosition");
+        positionAdapter.write(out, move.getStartPosition());
+        out.name("endPosition");
+        positionAdapter.write(out, move.getEndPosition());
+        out.name("promotionPiece").value(JsonFields.name(move.getPromotionPiece()));
+        out.endObject();
+    }
+
+    @Override
+    public ChessMove read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ChessPosition start = null;
+        ChessPosition end = null;
+        ChessPiece.PieceType promotion = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "startPosition" -> start = positionAdapter.read(in);
+                case "endPosition" -> end = positionAdapter.read(in);
+                case "promotionPiece" -> promotion = JsonFields.readEnum(in, ChessPiece.PieceType.class);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new ChessMove(start, end, promotion);
+    }
+}
@@ -0,0 +1,61 @@
+package serialization;
+
+import chess.ChessGame;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import model.GameData;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes the record's components by name, as reflection does; null usernames
+ * and games are left out unless the writer serializes nulls.
+ */
+class GameDataAdapter extends TypeAdapter<GameData> {
+
+    private final ChessGameAdapter gameAdapter = new ChessGameAdapter();
+
+    @Override
+    public void write(JsonWriter out, GameData data) throws IOException {
+        if (data == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("gameID").value(data.gameID());
+        out.name("whiteUsername").value(data.whiteUsername());
+        out.name("blackUsername").value(data.blackUsername());
+        out.name("gameName").value(data.gameName());
+        out.name("game");
+        gameAdapter.write(out, data.game());
+        out.endObject();
+    }
+
+    @Override
+    public GameData read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int gameID = 0;
+        String whiteUsername = null;
+        String blackUsername = null;
+        String gameName = null;
+        ChessGame game = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "gameID" -> gameID = in.nextInt();
+                case "whiteUsername" -> whiteUsername = JsonFields.readString(in);
+                case "blackUsername" -> blackUsername = JsonFields.readString(in);
+                case "gameName" -> gameName = JsonFields.readString(in);
+                case "game" -> game = gameAdapter.read(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new GameData(gameID, whiteUsername, blackUsername, gameName, game);
+    }
+}
@@ -0,0 +1,68 @@
+package serialization;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+/**
+ * Compact, versioned binary encoding of a {@link ChessGame}.
+ * <p>
+ * Version 1 is 34 bytes: a version byte, a flags byte (bit 0 black to move, bit 1 game
+ * over) and 32 bytes of board with one nibble per square, a1 first and the low nibble
+ * before the high one. A nibble is 0 for an empty square, otherwise
+ * {@code color.ordinal() * 6 + type.ordinal() + 1}. The rules engine has no castling or
+ * en passant, so there is no such state to store.
+ */
+public final class GameStateCodec {
+
+    public static final int VERSION = 1;
+    public static final int ENCODED_LENGTH = 34;
+
+    private static final int FLAG_BLACK_TO_MOVE = 1;
+    private static final int FLAG_GAME_OVER = 1 << 1;
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private GameStateCodec() {
+    }
+
+    public static byte[] encode(ChessGame game) {
+        byte[] bytes = new byte[ENCODED_LENGTH];
+        bytes[0] = VERSION;
+        int flags = 0;
+        if (game.getTeamTurn() == ChessGame.TeamColor.BLACK) {flags |= FLAG_BLACK_TO_MOVE;}
+        if (game.isGameOver()) {flags |= FLAG_GAME_OVER;}
+        bytes[1] = (byte) flags;
+
+        ChessBoard board = game.getBoard();
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(ChessPosition.of(square / 8 + 1, square % 8 + 1));
+            if (piece == null) {continue;}
+            int code = piece.getTeamColor().ordinal() * TYPES.length + piece.getPieceType().ordinal() + 1;
+            bytes[2 + square / 2] |= (byte) (square % 2 == 0 ? code : code << 4);
+        }
+        return bytes;
+    }
+
+    public static ChessGame decode(byte[] bytes) {
+        if (bytes == null || bytes.length < 2) {throw new IllegalArgumentException("Truncated game state");}
+        if (bytes[0] != VERSION) {throw new IllegalArgumentException("Unsupported game state version " + bytes[0]);}
+        if (bytes.length != ENCODED_LENGTH) {throw new IllegalArgumentException("Invalid game state length " + bytes.length);}
+
+        ChessBoard board = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            int code = (bytes[2 + square / 2] >> (square % 2 == 0 ? 0 : 4)) & 0xF;
+            if (code == 0) {continue;}
+            if (code > COLORS.length * TYPES.length) {throw new IllegalArgumentException("Invalid piece code " + code);}
+            ChessPiece piece = ChessPiece.of(COLORS[(code - 1) / TYPES.length], TYPES[(code - 1) % TYPES.length]);
+            board.addPiece(ChessPosition.of(square / 8 + 1, square % 8 + 1), piece);
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn((bytes[1] & FLAG_BLACK_TO_MOVE) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        if ((bytes[1] & FLAG_GAME_OVER) != 0) {game.gameOver();}
+        return game;
+    }
+}
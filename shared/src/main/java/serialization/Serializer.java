@@ -0,0 +1,40 @@
+package serialization;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import model.GameData;
+import websocket.commands.UserGameCommand;
+import websocket.messages.ServerMessage;
+
+/**
+ * The Gson instance shared by the client and server. Its adapters map deserialized
+ * positions and pieces onto the canonical {@link ChessPosition#of} and
+ * {@link ChessPiece#of} instances instead of allocating new ones.
+ * <p>
+ * Games, moves and WebSocket messages are streamed by hand-written adapters rather than
+ * reflection. They keep the field names reflection used, except that a board is written
+ * as its FEN piece placement string; the old board shapes are still read.
+ */
+public final class Serializer {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(ChessPosition.class, new ChessPositionAdapter())
+            .registerTypeAdapter(ChessPiece.class, new ChessPieceAdapter())
+            .registerTypeAdapter(ChessMove.class, new ChessMoveAdapter())
+            .registerTypeAdapter(ChessBoard.class, new ChessBoardAdapter())
+            .registerTypeAdapter(ChessGame.class, new ChessGameAdapter())
+            .registerTypeAdapter(GameData.class, new GameDataAdapter())
+            .registerTypeAdapter(ServerMessage.class, new ServerMessageAdapter())
+            .registerTypeAdapter(UserGameCommand.class, new UserGameCommandAdapter())
+            .create();
+
+    private Serializer() {
+    }
+
+    public static Gson gson() {return GSON;}
+}
@@ -0,0 +1,81 @@
+package serialization;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import model.GameData;
+import websocket.messages.ServerMessage;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes the fields reflection produces, leaving out those a message type
+ * does not carry.
+ */
+class ServerMessageAdapter extends TypeAdapter<ServerMessage> {
+
+    private final GameDataAdapter gameDataAdapter = new GameDataAdapter();
+    private final ChessMoveAdapter moveAdapter = new ChessMoveAdapter();
+
+    @Override
+    public void write(JsonWriter out, ServerMessage message) throws IOException {
+        if (message == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("serverMessageType").value(JsonFields.name(message.getServerMessageType()));
+        out.name("game");
+        gameDataAdapter.write(out, message.getGame());
+        out.name("message").value(message.getMessage());
+        out.name("move");
+        moveAdapter.write(out, message.getMove());
+        out.name("teamTurn").value(JsonFields.name(message.getTeamTurn()));
+        if (message.getServerMessageType() == ServerMessage.ServerMessageType.MOVE_MADE) {
+            out.name("check").value(message.isCheck());
+            out.name("checkmate").value(message.isCheckmate());
+        }
+        out.name("positionKey").value(message.getPositionKey());
+        out.endObject();
+    }
+
+    @Override
+    public ServerMessage read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ServerMessage.ServerMessageType type = null;
+        GameData game = null;
+        String text = null;
+        ChessMove move = null;
+        ChessGame.TeamColor teamTurn = null;
+        Boolean check = null;
+        Boolean checkmate = null;
+        Long positionKey = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "serverMessageType" -> type = JsonFields.readEnum(in, ServerMessage.ServerMessageType.class);
+                case "game" -> game = gameDataAdapter.read(in);
+                case "message" -> text = JsonFields.readString(in);
+                case "move" -> move = moveAdapter.read(in);
+                case "teamTurn" -> teamTurn = JsonFields.readEnum(in, ChessGame.TeamColor.class);
+                case "check" -> check = JsonFields.readBoolean(in);
+                case "checkmate" -> checkmate = JsonFields.readBoolean(in);
+                case "positionKey" -> positionKey = JsonFields.readLong(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if (type == null) {return new ServerMessage(null, text);}
+        return switch (type) {
+            case LOAD_GAME -> new ServerMessage(game);
+            case MOVE_MADE -> new ServerMessage(move, teamTurn, check, checkmate, positionKey);
+            case ERROR, NOTIFICATION -> new ServerMessage(type, text);
+        };
+    }
+}
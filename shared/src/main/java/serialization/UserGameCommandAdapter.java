@@ -0,0 +1,64 @@
+package serialization;
+
+import chess.ChessMove;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import websocket.commands.UserGameCommand;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes the fields reflection produces. {@code moveDeltas} is only written
+ * when set, so plain commands look exactly as they always have.
+ */
+class UserGameCommandAdapter extends TypeAdapter<UserGameCommand> {
+
+    private final ChessMoveAdapter moveAdapter = new ChessMoveAdapter();
+
+    @Override
+    public void write(JsonWriter out, UserGameCommand command) throws IOException {
+        if (command == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("commandType").value(JsonFields.name(command.getCommandType()));
+        out.name("authToken").value(command.getAuthToken());
+        out.name("gameID").value(command.getGameID());
+        out.name("move");
+        moveAdapter.write(out, command.getMove());
+        if (command.wantsMoveDeltas()) {out.name("moveDeltas").value(true);}
+        out.endObject();
+    }
+
+    @Override
+    public UserGameCommand read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        UserGameCommand.CommandType type = null;
+        String authToken = null;
+        Integer gameID = null;
+        ChessMove move = null;
+        boolean moveDeltas = false;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "commandType" -> type = JsonFields.readEnum(in, UserGameCommand.CommandType.class);
+                case "authToken" -> authToken = JsonFields.readString(in);
+                case "gameID" -> gameID = JsonFields.readInteger(in);
+                case "move" -> move = moveAdapter.read(in);
+                case "moveDeltas" -> moveDeltas = Boolean.TRUE.equals(JsonFields.readBoolean(in));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if (moveDeltas && type == UserGameCommand.CommandType.CONNECT) {
+            return UserGameCommand.connectWithMoveDeltas(authToken, gameID);
+        }
+        return new UserGameCommand(type, authToken, gameID, move);
+    }
+}
@@ -15,6 +15,7 @@ public class UserGameCommand {
     private final String authToken;
     private final Integer gameID;
     private final ChessMove move;
+    private Boolean moveDeltas;
 
     public UserGameCommand(CommandType commandType, String authToken, Integer gameID, ChessMove move) {
         this.commandType = commandType;
@@ -23,17 +24,31 @@ public class UserGameCommand {
         this.move = move;
     }
 
+    /**
+     * A CONNECT that asks for MOVE_MADE deltas after each move instead of a full LOAD_GAME.
+     */
+    public static UserGameCommand connectWithMoveDeltas(String authToken, Integer gameID) {
+        UserGameCommand command = new UserGameCommand(CommandType.CONNECT, authToken, gameID, null);
+        command.moveDeltas = true;
+        return command;
+    }
+
     public enum CommandType {
         CONNECT,
         MAKE_MOVE,
         LEAVE,
-        RESIGN
+        RESIGN,
+        /**
+         * Asks for a full LOAD_GAME, sent by a client whose copy of the game has diverged.
+         */
+        RESYNC
     }
 
     public CommandType getCommandType() { return commandType; }
     public String getAuthToken() {return authToken;}
     public Integer getGameID() {return gameID;}
     public ChessMove getMove() {return move;}
+    public boolean wantsMoveDeltas() {return Boolean.TRUE.equals(moveDeltas);}
 
     @Override
     public boolean equals(Object o) {
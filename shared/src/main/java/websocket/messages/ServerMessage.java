@@ -1,5 +1,7 @@
 package websocket.messages;
 
+import chess.ChessGame;
+import chess.ChessMove;
 import model.GameData;
 import java.util.Objects;
 
@@ -13,11 +15,21 @@ public class ServerMessage {
     ServerMessageType serverMessageType;
     private GameData game;
     private String message;
+    private ChessMove move;
+    private ChessGame.TeamColor teamTurn;
+    private Boolean check;
+    private Boolean checkmate;
+    private Long positionKey;
 
     public enum ServerMessageType {
         LOAD_GAME,
         ERROR,
-        NOTIFICATION
+        NOTIFICATION,
+        /**
+         * One move applied to the game, for clients that asked for deltas on CONNECT. The
+         * position key lets the client confirm its copy matches; if not it sends RESYNC.
+         */
+        MOVE_MADE
     }
 
     public ServerMessage(ServerMessageType type) {this.serverMessageType = type;}
@@ -32,9 +44,32 @@ public class ServerMessage {
         this.message = message;
     }
 
+    public ServerMessage(ChessMove move, ChessGame game) {
+        this.serverMessageType = ServerMessageType.MOVE_MADE;
+        this.move = move;
+        this.teamTurn = game.getTeamTurn();
+        this.check = game.isInCheck(teamTurn);
+        this.checkmate = check && game.isInCheckmate(teamTurn);
+        this.positionKey = game.positionKey();
+    }
+
+    public ServerMessage(ChessMove move, ChessGame.TeamColor teamTurn, Boolean check, Boolean checkmate, Long positionKey) {
+        this.serverMessageType = ServerMessageType.MOVE_MADE;
+        this.move = move;
+        this.teamTurn = teamTurn;
+        this.check = check;
+        this.checkmate = checkmate;
+        this.positionKey = positionKey;
+    }
+
     public ServerMessageType getServerMessageType() {return this.serverMessageType;}
     public GameData getGame() {return game;}
     public String getMessage() {return message;}
+    public ChessMove getMove() {return move;}
+    public ChessGame.TeamColor getTeamTurn() {return teamTurn;}
+    public boolean isCheck() {return Boolean.TRUE.equals(check);}
+    public boolean isCheckmate() {return Boolean.TRUE.equals(checkmate);}
+    public Long getPositionKey() {return positionKey;}
 
     @Override
     public boolean equals(Object o) {
@@ -0,0 +1,63 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerftTests {
+
+    @Test
+    @DisplayName("Perft Matches Reference Node Counts")
+    public void referencePositions() throws IOException {
+        for (String line : loadPositions()) {
+            String[] fields = line.split(";");
+            for (int i = 1; i < fields.length; i++) {
+                String[] expected = fields[i].trim().split(" ");
+                int depth = Integer.parseInt(expected[0].substring(1));
+                ChessGame game = Fen.parse(fields[0]);
+                long nodes = new Perft(game, depth).perft(depth);
+                assertEquals(Long.parseLong(expected[1]), nodes, "perft(" + depth + ") of " + fields[0]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Divide Sums To Perft")
+    public void divideSumsToPerft() {
+        Perft perft = new Perft(Fen.parse(Fen.START_POSITION), 3);
+        Map<String, Long> divide = perft.divide(3);
+        assertEquals(20, divide.size());
+        assertEquals(600, divide.get("e2e4"));
+        assertEquals(perft.perft(3), divide.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    @DisplayName("Perft Leaves Position Unchanged")
+    public void perftRestoresPosition() {
+        ChessGame game = new ChessGame();
+        long key = game.positionKey();
+        new Perft(game, 3).perft(3);
+        assertEquals(new ChessGame(), game);
+        assertEquals(key, game.positionKey());
+    }
+
+    private List<String> loadPositions() throws IOException {
+        List<String> positions = new ArrayList<>();
+        try (var stream = getClass().getResourceAsStream("/perft/positions.epd")) {
+            assertNotNull(stream, "Missing perft/positions.epd");
+            var reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.isBlank() && !line.startsWith("#")) {positions.add(line);}
+            }
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,55 @@
+package serialization;
+
+import chess.*;
+import model.GameData;
+import org.junit.jupiter.api.*;
+import websocket.commands.UserGameCommand;
+import websocket.messages.ServerMessage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryMessageCodecTests {
+
+    @Test
+    @DisplayName("Round Trip Commands")
+    public void roundTripCommands() {
+        ChessMove move = new ChessMove(ChessPosition.of(7, 1), ChessPosition.of(8, 1), ChessPiece.PieceType.KNIGHT);
+        UserGameCommand command = new UserGameCommand(UserGameCommand.CommandType.MAKE_MOVE, "token", 42, move);
+        byte[] encoded = BinaryMessageCodec.encode(command);
+        assertEquals(2 + 4 + 2 + 2 + 5, encoded.length);
+        assertEquals(command, BinaryMessageCodec.decodeCommand(encoded, 0, encoded.length));
+
+        byte[] connect = BinaryMessageCodec.encode(UserGameCommand.connectWithMoveDeltas("token", 42));
+        assertTrue(BinaryMessageCodec.decodeCommand(connect, 0, connect.length).wantsMoveDeltas());
+    }
+
+    @Test
+    @DisplayName("Round Trip Server Messages")
+    public void roundTripServerMessages() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessMove move = new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null);
+        game.makeMove(move);
+
+        ServerMessage load = new ServerMessage(new GameData(9, "white", null, "name", game));
+        byte[] encoded = BinaryMessageCodec.encode(load);
+        assertEquals(load, BinaryMessageCodec.decodeMessage(encoded, 0, encoded.length));
+
+        encoded = BinaryMessageCodec.encode(new ServerMessage(move, game));
+        ServerMessage delta = BinaryMessageCodec.decodeMessage(encoded, 0, encoded.length);
+        assertEquals(move, delta.getMove());
+        assertEquals(ChessGame.TeamColor.BLACK, delta.getTeamTurn());
+        assertEquals(game.positionKey(), delta.getPositionKey());
+
+        ServerMessage error = new ServerMessage(ServerMessage.ServerMessageType.ERROR, "Error: ünauthorized");
+        encoded = BinaryMessageCodec.encode(error);
+        assertEquals(error, BinaryMessageCodec.decodeMessage(encoded, 0, encoded.length));
+    }
+
+    @Test
+    @DisplayName("Reject Malformed Frames")
+    public void rejectMalformedFrames() {
+        byte[] encoded = BinaryMessageCodec.encode(new UserGameCommand(UserGameCommand.CommandType.LEAVE, "token", 1, null));
+        assertThrows(IllegalArgumentException.class, () -> BinaryMessageCodec.decodeCommand(encoded, 0, encoded.length - 1));
+        assertThrows(IllegalArgumentException.class, () -> BinaryMessageCodec.decodeMessage(new byte[]{99}, 0, 1));
+    }
+}
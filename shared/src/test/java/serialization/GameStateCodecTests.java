@@ -0,0 +1,40 @@
+package serialization;
+
+import chess.*;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameStateCodecTests {
+
+    @Test
+    @DisplayName("Round Trip Start Position")
+    public void roundTripStartPosition() {
+        ChessGame game = new ChessGame();
+        byte[] encoded = GameStateCodec.encode(game);
+        assertEquals(GameStateCodec.ENCODED_LENGTH, encoded.length);
+        assertEquals(game, GameStateCodec.decode(encoded));
+    }
+
+    @Test
+    @DisplayName("Round Trip Turn And Game Over")
+    public void roundTripFlags() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.gameOver();
+
+        ChessGame decoded = GameStateCodec.decode(GameStateCodec.encode(game));
+        assertEquals(game, decoded);
+        assertEquals(ChessGame.TeamColor.BLACK, decoded.getTeamTurn());
+        assertTrue(decoded.isGameOver());
+        assertEquals(game.positionKey(), decoded.positionKey());
+    }
+
+    @Test
+    @DisplayName("Reject Unknown Version")
+    public void rejectUnknownVersion() {
+        byte[] encoded = GameStateCodec.encode(new ChessGame());
+        encoded[0] = 99;
+        assertThrows(IllegalArgumentException.class, () -> GameStateCodec.decode(encoded));
+    }
+}
@@ -0,0 +1,110 @@
+package serialization;
+
+import chess.*;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import model.GameData;
+import org.junit.jupiter.api.*;
+import websocket.commands.UserGameCommand;
+import websocket.messages.ServerMessage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SerializerTests {
+
+    private final Gson gson = Serializer.gson();
+
+    @Test
+    @DisplayName("Board Written As Placement")
+    public void boardWrittenAsPlacement() {
+        JsonObject json = gson.toJsonTree(new ChessGame()).getAsJsonObject();
+        assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR", json.get("board").getAsString());
+        assertEquals("WHITE", json.get("currentColor").getAsString());
+    }
+
+    @Test
+    @DisplayName("Round Trip Game Data")
+    public void roundTripGameData() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        game.gameOver();
+        GameData data = new GameData(7, "white", null, "name", game);
+
+        GameData decoded = gson.fromJson(gson.toJson(data), GameData.class);
+        assertEquals(data, decoded);
+        assertEquals(ChessGame.TeamColor.WHITE, decoded.game().getTeamTurn());
+        assertTrue(decoded.game().isGameOver());
+        assertEquals(game.positionKey(), decoded.game().positionKey());
+        assertEquals(2, decoded.game().getPly());
+    }
+
+    @Test
+    @DisplayName("Read Reflection Board Layouts")
+    public void readReflectionBoardLayouts() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        String bitboards = new Gson().toJson(game);
+        assertEquals(game, gson.fromJson(bitboards, ChessGame.class));
+
+        String squares = "{\"currentColor\":\"BLACK\",\"board\":{\"board\":[[{\"pieceColor\":\"WHITE\",\"pieceType\":\"KING\"}," +
+                "null]]}}";
+        ChessGame legacy = gson.fromJson(squares, ChessGame.class);
+        assertEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING),
+                legacy.getBoard().getPiece(ChessPosition.of(1, 1)));
+        assertNull(legacy.getBoard().getPiece(ChessPosition.of(1, 2)));
+        assertEquals(ChessGame.TeamColor.BLACK, legacy.getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("Read Original Board JSON")
+    public void readOriginalBoardJson() {
+        // The ChessPiece[8][8] shape stored and sent before the board moved to bitboards
+        StringBuilder rows = new StringBuilder();
+        ChessBoard start = new ChessBoard();
+        start.resetBoard();
+        for (int row = 1; row <= 8; row++) {
+            rows.append(row == 1 ? "[" : ",[");
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = start.getPiece(ChessPosition.of(row, col));
+                if (col > 1) {rows.append(',');}
+                rows.append(piece == null ? "null" : "{\"pieceColor\":\"" + piece.getTeamColor() +
+                        "\",\"pieceType\":\"" + piece.getPieceType() + "\"}");
+            }
+            rows.append(']');
+        }
+        String json = "{\"currentColor\":\"WHITE\",\"board\":{\"board\":[" + rows + "]}}";
+        assertEquals(new ChessGame(), gson.fromJson(json, ChessGame.class));
+    }
+
+    @Test
+    @DisplayName("Messages Keep Reflection Fields")
+    public void messagesKeepReflectionFields() {
+        ChessMove move = new ChessMove(ChessPosition.of(7, 1), ChessPosition.of(8, 1), ChessPiece.PieceType.QUEEN);
+        UserGameCommand command = new UserGameCommand(UserGameCommand.CommandType.MAKE_MOVE, "token", 3, move);
+        Gson reflection = new Gson();
+        assertEquals(command, reflection.fromJson(gson.toJson(command), UserGameCommand.class));
+        assertEquals(command, gson.fromJson(reflection.toJson(command), UserGameCommand.class));
+        assertTrue(gson.fromJson(gson.toJson(UserGameCommand.connectWithMoveDeltas("token", 3)),
+                UserGameCommand.class).wantsMoveDeltas());
+
+        ServerMessage notification = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION, "hello");
+        assertEquals(reflection.toJson(notification), gson.toJson(notification));
+        assertEquals(notification, gson.fromJson(gson.toJson(notification), ServerMessage.class));
+    }
+
+    @Test
+    @DisplayName("Round Trip Move Made")
+    public void roundTripMoveMade() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessMove move = new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null);
+        game.makeMove(move);
+
+        ServerMessage decoded = gson.fromJson(gson.toJson(new ServerMessage(move, game)), ServerMessage.class);
+        assertEquals(ServerMessage.ServerMessageType.MOVE_MADE, decoded.getServerMessageType());
+        assertEquals(move, decoded.getMove());
+        assertEquals(ChessGame.TeamColor.BLACK, decoded.getTeamTurn());
+        assertFalse(decoded.isCheck());
+        assertEquals(game.positionKey(), decoded.getPositionKey());
+    }
+}